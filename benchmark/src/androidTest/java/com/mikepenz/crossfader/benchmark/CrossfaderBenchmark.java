@@ -0,0 +1,286 @@
+package com.mikepenz.crossfader.benchmark;
+
+import android.content.Context;
+import android.os.Debug;
+import android.os.SystemClock;
+import android.util.Log;
+import android.view.MotionEvent;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.FrameLayout;
+import android.widget.LinearLayout;
+import android.widget.TextView;
+
+import androidx.benchmark.BenchmarkState;
+import androidx.benchmark.junit4.BenchmarkRule;
+import androidx.test.core.app.ApplicationProvider;
+
+import com.mikepenz.crossfader.Crossfader;
+import com.mikepenz.crossfader.view.ICrossFadeSlidingPaneLayout;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Locale;
+
+/**
+ * Measures the hot paths of the crossfader (build from xml and in code, setOffset, the onPanelSlide dispatch of a
+ * drag with and without resizing the content, a layout at rest) against generated view trees of 10 to 10,000 nodes.
+ * The BenchmarkRule reports the time per operation, the allocations per operation are reported in logcat
+ * (tag CrossfaderBenchmark).
+ * <p/>
+ * The view trees are never attached to a window, so they are built and laid out on the instrumentation thread and
+ * the main thread of the app stays responsive. Run with ./gradlew :benchmark:connectedCheck
+ */
+@RunWith(Parameterized.class)
+public class CrossfaderBenchmark {
+    private static final String TAG = "CrossfaderBenchmark";
+
+    private static final int WIDTH = 1080;
+    private static final int HEIGHT = 1920;
+    private static final int FIRST_WIDTH = 600;
+    private static final int SECOND_WIDTH = 200;
+    private static final int DRAG_STEPS = 100;
+    private static final int ALLOCATION_ITERATIONS = 100;
+
+    @Parameterized.Parameters(name = "nodes={0}")
+    public static Collection<Object[]> data() {
+        return Arrays.asList(new Object[][]{{10}, {100}, {1000}, {10000}});
+    }
+
+    @Rule
+    public BenchmarkRule mBenchmarkRule = new BenchmarkRule();
+
+    private final int mNodes;
+    private Context mContext;
+    private FrameLayout mHost;
+
+    public CrossfaderBenchmark(int nodes) {
+        this.mNodes = nodes;
+    }
+
+    @Before
+    public void setUp() {
+        mContext = ApplicationProvider.getApplicationContext();
+        mHost = new FrameLayout(mContext);
+        layoutHost();
+    }
+
+    @Test
+    public void build() {
+        benchmarkBuild(false);
+    }
+
+    @Test
+    public void buildProgrammaticLayout() {
+        benchmarkBuild(true);
+    }
+
+    @Test
+    public void setOffset() {
+        prepare().build();
+        layoutHost();
+        final ICrossFadeSlidingPaneLayout crossFadeLayout = (ICrossFadeSlidingPaneLayout) mHost.getChildAt(0);
+
+        BenchmarkState state = mBenchmarkRule.getState();
+        int i = 0;
+        while (state.keepRunning()) {
+            //includes the transitions from and to 0 and 1
+            crossFadeLayout.setOffset((i++ % 101) / 100f);
+        }
+
+        long allocations = countAllocations(new Runnable() {
+            private int mIteration = 0;
+
+            @Override
+            public void run() {
+                crossFadeLayout.setOffset((mIteration++ % 101) / 100f);
+            }
+        });
+        report("setOffset", allocations);
+    }
+
+    @Test
+    public void drag() {
+        benchmarkDrag(false);
+    }
+
+    @Test
+    public void dragResizeContent() {
+        benchmarkDrag(true);
+    }
+
+    /**
+     * requests a layout from within the hidden first view (like a binding RecyclerView would do) while the pane is
+     * closed, the hidden panel is GONE at rest so the layout stays cheap
+     */
+    @Test
+    public void layoutAtRest() {
+        final Crossfader crossfader = prepare().build();
+        layoutHost();
+
+        BenchmarkState state = mBenchmarkRule.getState();
+        while (state.keepRunning()) {
+            crossfader.getFirst().requestLayout();
+            layoutHost();
+        }
+
+        long allocations = countAllocations(new Runnable() {
+            @Override
+            public void run() {
+                crossfader.getFirst().requestLayout();
+                layoutHost();
+            }
+        });
+        report("layout at rest", allocations);
+    }
+
+    private void benchmarkBuild(boolean programmaticLayout) {
+        BenchmarkState state = mBenchmarkRule.getState();
+        while (state.keepRunning()) {
+            state.pauseTiming();
+            mHost.removeAllViews();
+            Crossfader crossfader = prepare().withProgrammaticLayout(programmaticLayout);
+            state.resumeTiming();
+
+            crossfader.build();
+        }
+        mHost.removeAllViews();
+
+        //the allocations of the build only, without the generated trees
+        long allocations = 0;
+        for (int i = 0; i < ALLOCATION_ITERATIONS; i++) {
+            Crossfader crossfader = prepare().withProgrammaticLayout(programmaticLayout);
+            startAllocCounting();
+            crossfader.build();
+            allocations += stopAllocCounting();
+            mHost.removeAllViews();
+        }
+        report(programmaticLayout ? "build (programmatic layout)" : "build", allocations);
+    }
+
+    /**
+     * drags the pane back and forth between closed and opened by dispatching MotionEvents, every operation is one
+     * frame of the drag: the touch event with the onPanelSlide dispatch and a layout pass if one was requested
+     * (e.g. by resizing the content)
+     */
+    private void benchmarkDrag(boolean resizeContentPanel) {
+        prepare().withResizeContentPanel(resizeContentPanel).build();
+        layoutHost();
+        final ViewGroup pane = (ViewGroup) mHost.getChildAt(0);
+
+        final float fromX = SECOND_WIDTH + 1;
+        final float step = (FIRST_WIDTH - SECOND_WIDTH) / (float) DRAG_STEPS;
+        final float y = HEIGHT / 2f;
+        long downTime = SystemClock.uptimeMillis();
+
+        MotionEvent down = MotionEvent.obtain(downTime, downTime, MotionEvent.ACTION_DOWN, fromX, y, 0);
+        pane.dispatchTouchEvent(down);
+        down.recycle();
+
+        //one move event is reused for every frame, so the benchmark does not measure its allocation
+        final MotionEvent move = MotionEvent.obtain(downTime, downTime, MotionEvent.ACTION_MOVE, fromX, y, 0);
+        Runnable frame = new Runnable() {
+            private int mFrame = 0;
+
+            @Override
+            public void run() {
+                //back and forth, so the pane keeps sliding
+                int position = mFrame++ % (2 * DRAG_STEPS);
+                if (position > DRAG_STEPS) {
+                    position = 2 * DRAG_STEPS - position;
+                }
+                move.setLocation(fromX + position * step, y);
+                pane.dispatchTouchEvent(move);
+                if (mHost.isLayoutRequested()) {
+                    layoutHost();
+                }
+            }
+        };
+
+        BenchmarkState state = mBenchmarkRule.getState();
+        while (state.keepRunning()) {
+            frame.run();
+        }
+        long allocations = countAllocations(frame);
+        report(resizeContentPanel ? "drag (resize content)" : "drag", allocations);
+
+        MotionEvent up = MotionEvent.obtain(downTime, SystemClock.uptimeMillis(), MotionEvent.ACTION_UP, fromX, y, 0);
+        pane.dispatchTouchEvent(up);
+        up.recycle();
+        move.recycle();
+    }
+
+    /**
+     * creates a new crossfader whose first view is a generated tree with the given amount of nodes
+     */
+    private Crossfader prepare() {
+        View content = new TextView(mContext);
+        mHost.addView(content, ViewGroup.LayoutParams.MATCH_PARENT, ViewGroup.LayoutParams.MATCH_PARENT);
+
+        return new Crossfader()
+                .withContent(content)
+                .withFirst(createTree(mContext, mNodes), FIRST_WIDTH)
+                .withSecond(createTree(mContext, 10), SECOND_WIDTH);
+    }
+
+    private void layoutHost() {
+        mHost.measure(View.MeasureSpec.makeMeasureSpec(WIDTH, View.MeasureSpec.EXACTLY),
+                View.MeasureSpec.makeMeasureSpec(HEIGHT, View.MeasureSpec.EXACTLY));
+        mHost.layout(0, 0, WIDTH, HEIGHT);
+    }
+
+    /**
+     * generates a vertical tree of rows with up to 9 TextViews each, until the given amount of nodes is reached
+     */
+    private static View createTree(Context ctx, int nodes) {
+        LinearLayout root = new LinearLayout(ctx);
+        root.setOrientation(LinearLayout.VERTICAL);
+        int count = 1;
+        while (count < nodes) {
+            LinearLayout row = new LinearLayout(ctx);
+            root.addView(row);
+            count++;
+            for (int i = 0; i < 9 && count < nodes; i++) {
+                TextView item = new TextView(ctx);
+                item.setText("Item " + count);
+                row.addView(item);
+                count++;
+            }
+        }
+        return root;
+    }
+
+    /**
+     * @param operation
+     * @return the allocations of ALLOCATION_ITERATIONS runs of the operation
+     */
+    private static long countAllocations(Runnable operation) {
+        startAllocCounting();
+        for (int i = 0; i < ALLOCATION_ITERATIONS; i++) {
+            operation.run();
+        }
+        return stopAllocCounting();
+    }
+
+    @SuppressWarnings("deprecation")
+    private static void startAllocCounting() {
+        Debug.resetThreadAllocCount();
+        Debug.startAllocCounting();
+    }
+
+    @SuppressWarnings("deprecation")
+    private static long stopAllocCounting() {
+        Debug.stopAllocCounting();
+        return Debug.getThreadAllocCount();
+    }
+
+    private void report(String name, long allocations) {
+        Log.i(TAG, String.format(Locale.US, "%s [%d nodes]: %.2f allocs/op", name, mNodes, allocations / (float) ALLOCATION_ITERATIONS));
+    }
+}
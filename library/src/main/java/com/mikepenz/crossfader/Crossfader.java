@@ -1,18 +1,34 @@
 package com.mikepenz.crossfader;
 
+import android.content.Context;
 import android.graphics.Color;
 import android.os.Build;
 import android.os.Bundle;
+import android.os.Looper;
+import android.os.MessageQueue;
+import android.os.SystemClock;
 import androidx.annotation.LayoutRes;
+import androidx.core.view.ViewCompat;
 import androidx.slidingpanelayout.widget.SlidingPaneLayout;
-import android.util.DisplayMetrics;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
 import android.widget.FrameLayout;
 import android.widget.LinearLayout;
 
+import com.mikepenz.crossfader.metrics.InputLatencyProbe;
+import com.mikepenz.crossfader.metrics.LatencyHistogram;
+import com.mikepenz.crossfader.metrics.SlideMetricsListener;
+import com.mikepenz.crossfader.metrics.SlideMetricsTracker;
+import com.mikepenz.crossfader.util.CrossfaderInflater;
+import com.mikepenz.crossfader.view.CrossFadeSlidingPaneLayout;
+import com.mikepenz.crossfader.view.CrossfadeLayout;
+import com.mikepenz.crossfader.view.GmailStyleCrossFadeSlidingPaneLayout;
 import com.mikepenz.crossfader.view.ICrossFadeSlidingPaneLayout;
+import com.mikepenz.crossfader.view.OnPrepareSlideListener;
+import com.mikepenz.crossfader.view.PaneWidths;
+
+import java.util.ArrayList;
 
 /**
  * Created by mikepenz on 15.07.15.
@@ -22,8 +38,18 @@ public class Crossfader<T extends SlidingPaneLayout & ICrossFadeSlidingPaneLayou
      * BUNDLE param to store the selection
      */
     protected static final String BUNDLE_CROSS_FADED = "bundle_cross_faded";
+    /**
+     * BUNDLE param to store the stage (CrossfadeLayout only)
+     */
+    protected static final String BUNDLE_STAGE = "bundle_stage";
+    /**
+     * BUNDLE param to store the exact offset
+     */
+    protected static final String BUNDLE_OFFSET = "bundle_offset";
 
-    private T mCrossFadeSlidingPaneLayout;
+    // the crossfader layout, a SlidingPaneLayout or the CrossfadeLayout
+    private ViewGroup mCrossFadeLayout;
+    private ICrossFadeSlidingPaneLayout mCrossFadeSlidingPaneLayout;
 
     public Crossfader() {
     }
@@ -54,6 +80,33 @@ public class Crossfader<T extends SlidingPaneLayout & ICrossFadeSlidingPaneLayou
         return this;
     }
 
+    /**
+     * uses the CrossfadeLayout, a lightweight layout driven by a ViewDragHelper, instead of the SlidingPaneLayout
+     * based CrossFadeSlidingPaneLayout. It measures its children only once and has no dim or lock handling.
+     * Like the SlidingPaneLayout it is mirrored for a RTL layout direction.
+     *
+     * @return
+     */
+    public Crossfader withCrossfadeLayout() {
+        this.mBaseLayout = R.layout.crossfader_layout;
+        return this;
+    }
+
+    // create the base layout in code instead of inflating it
+    protected boolean mProgrammaticLayout = false;
+
+    /**
+     * if enabled the base layout (crossfader_base, crossfader_gmail_style or crossfader_layout) is created in code with its final
+     * LayoutParams instead of inflating and adjusting it afterwards. Has no effect for a custom base layout.
+     *
+     * @param programmaticLayout
+     * @return
+     */
+    public Crossfader withProgrammaticLayout(boolean programmaticLayout) {
+        this.mProgrammaticLayout = programmaticLayout;
+        return this;
+    }
+
     private View mContent = null;
 
     /**
@@ -67,8 +120,20 @@ public class Crossfader<T extends SlidingPaneLayout & ICrossFadeSlidingPaneLayou
         return this;
     }
 
+    /**
+     * creates a view of the crossfader lazily, see withFirst(ViewProvider, int) and withSecond(ViewProvider, int)
+     */
+    public interface ViewProvider {
+        /**
+         * @param parent the container the view will be added to
+         * @return the view
+         */
+        View createView(ViewGroup parent);
+    }
+
     private View mFirst = null;
     private int mFirstWidth = -1;
+    private ViewProvider mFirstProvider = null;
 
     /**
      * define the default (first) view of the crossfader
@@ -80,11 +145,40 @@ public class Crossfader<T extends SlidingPaneLayout & ICrossFadeSlidingPaneLayou
     public Crossfader withFirst(View first, int width) {
         this.mFirst = first;
         this.mFirstWidth = width;
+        this.mFirstProvider = null;
+        return this;
+    }
+
+    /**
+     * define the default (first) view of the crossfader, which is only created once it is needed
+     * (the first drag or crossFade(), the restored state or when idle if withLazyViewsWhenIdle is enabled)
+     *
+     * @param firstProvider
+     * @param width
+     * @return
+     */
+    public Crossfader withFirst(ViewProvider firstProvider, int width) {
+        this.mFirst = null;
+        this.mFirstWidth = width;
+        this.mFirstProvider = firstProvider;
         return this;
     }
 
+    /**
+     * define the default (first) view of the crossfader as layout, which is only inflated once it is needed
+     * (the first drag or crossFade(), the restored state or when idle if withLazyViewsWhenIdle is enabled)
+     *
+     * @param firstLayout
+     * @param width
+     * @return
+     */
+    public Crossfader withFirst(@LayoutRes int firstLayout, int width) {
+        return withFirst(new LayoutViewProvider(firstLayout), width);
+    }
+
     private View mSecond = null;
     private int mSecondWidth = -1;
+    private ViewProvider mSecondProvider = null;
 
     /**
      * define the slided (second) view of the crossfader
@@ -96,6 +190,68 @@ public class Crossfader<T extends SlidingPaneLayout & ICrossFadeSlidingPaneLayou
     public Crossfader withSecond(View first, int width) {
         this.mSecond = first;
         this.mSecondWidth = width;
+        this.mSecondProvider = null;
+        return this;
+    }
+
+    /**
+     * define the slided (second) view of the crossfader, which is only created once it is needed
+     *
+     * @param secondProvider
+     * @param width
+     * @return
+     */
+    public Crossfader withSecond(ViewProvider secondProvider, int width) {
+        this.mSecond = null;
+        this.mSecondWidth = width;
+        this.mSecondProvider = secondProvider;
+        return this;
+    }
+
+    /**
+     * define the slided (second) view of the crossfader as layout, which is only inflated once it is needed
+     *
+     * @param secondLayout
+     * @param width
+     * @return
+     */
+    public Crossfader withSecond(@LayoutRes int secondLayout, int width) {
+        return withSecond(new LayoutViewProvider(secondLayout), width);
+    }
+
+    // the intermediate stages between the second and the first view
+    private ArrayList<View> mStages = new ArrayList<>();
+    private ArrayList<Integer> mStageWidths = new ArrayList<>();
+
+    /**
+     * add an intermediate stage between the second (closed) and the first (opened) view, e.g. a compact list between
+     * an icon rail and the full drawer. stages have to be added from the narrowest to the widest and the pane can rest
+     * at each of them. only the two stages adjacent to the current offset are shown, all others are GONE
+     * so additional stages do not add to the per-frame cost.
+     * only supported by the CrossfadeLayout (see withCrossfadeLayout())
+     *
+     * @param stage
+     * @param width
+     * @return
+     */
+    public Crossfader withStage(View stage, int width) {
+        this.mStages.add(stage);
+        this.mStageWidths.add(width);
+        return this;
+    }
+
+    // create the lazy views as soon as the main thread is idle after build()
+    protected boolean mLazyViewsWhenIdle = false;
+
+    /**
+     * if enabled, the views defined by a ViewProvider or layout are created as soon as the main thread is idle
+     * after build(), instead of waiting for the first drag or crossFade()
+     *
+     * @param lazyViewsWhenIdle
+     * @return
+     */
+    public Crossfader withLazyViewsWhenIdle(boolean lazyViewsWhenIdle) {
+        this.mLazyViewsWhenIdle = lazyViewsWhenIdle;
         return this;
     }
 
@@ -146,6 +302,129 @@ public class Crossfader<T extends SlidingPaneLayout & ICrossFadeSlidingPaneLayou
         return this;
     }
 
+    // promote the panels to hardware layers while sliding
+    protected boolean mHardwareLayerDuringSlide = false;
+
+    /**
+     * if enabled the first and second view are rendered into hardware layers while the pane slides
+     * (by a drag or crossFade()) and the layers are dropped once the pane is opened or closed.
+     * only supported by the layouts of the crossfader (CrossFadeSlidingPaneLayout, CrossfadeLayout)
+     *
+     * @param hardwareLayerDuringSlide
+     * @return
+     */
+    public Crossfader withHardwareLayerDuringSlide(boolean hardwareLayerDuringSlide) {
+        this.mHardwareLayerDuringSlide = hardwareLayerDuringSlide;
+        if (mCrossFadeSlidingPaneLayout != null) {
+            applyRenderingModes();
+        }
+        return this;
+    }
+
+    // draw the crossfade from snapshots of the panels while sliding
+    protected boolean mSnapshotDuringSlide = false;
+
+    /**
+     * if enabled the first and second view are recorded once when a slide starts and the crossfade is drawn from
+     * these snapshots (a RenderNode on API 29+, a Bitmap of the width of the view below, reused across slides)
+     * until the pane is opened or closed. use this for very heavy panels whose content does not have to update
+     * while sliding. views which render outside of the view hierarchy (e.g. SurfaceView) are not captured.
+     * only supported by the layouts of the crossfader (CrossFadeSlidingPaneLayout, CrossfadeLayout)
+     *
+     * @param snapshotDuringSlide
+     * @return
+     */
+    public Crossfader withSnapshotDuringSlide(boolean snapshotDuringSlide) {
+        this.mSnapshotDuringSlide = snapshotDuringSlide;
+        if (mCrossFadeSlidingPaneLayout != null) {
+            applyRenderingModes();
+        }
+        return this;
+    }
+
+    // prepare the hidden panel on a touch down which may start a drag
+    protected boolean mPrewarmOnTouch = false;
+
+    /**
+     * if enabled a touch down which may start a drag (over the visible panel or within the drag regions of the gmail
+     * style layout) or a pointer hovering over them measures, lays out and records the hidden view right away, before the drag is captured.
+     * the first frame of the drag then only has to move and crossfade the panels.
+     * only supported by the layouts of the crossfader (CrossFadeSlidingPaneLayout, CrossfadeLayout)
+     *
+     * @param prewarmOnTouch
+     * @return
+     */
+    public Crossfader withPrewarmOnTouch(boolean prewarmOnTouch) {
+        this.mPrewarmOnTouch = prewarmOnTouch;
+        if (mCrossFadeSlidingPaneLayout != null) {
+            applyRenderingModes();
+        }
+        return this;
+    }
+
+    /**
+     * a small helper method to set the optional rendering modes (hardware layers, snapshots, prewarm on touch)
+     * on the crossfader layouts which support them, custom layouts keep their own rendering
+     */
+    private void applyRenderingModes() {
+        if (mCrossFadeSlidingPaneLayout instanceof CrossFadeSlidingPaneLayout) {
+            CrossFadeSlidingPaneLayout crossFadeSlidingPaneLayout = (CrossFadeSlidingPaneLayout) mCrossFadeSlidingPaneLayout;
+            crossFadeSlidingPaneLayout.setHardwareLayerDuringSlide(mHardwareLayerDuringSlide);
+            crossFadeSlidingPaneLayout.setSnapshotDuringSlide(mSnapshotDuringSlide);
+            crossFadeSlidingPaneLayout.setPrewarmOnTouch(mPrewarmOnTouch);
+        } else if (mCrossFadeSlidingPaneLayout instanceof CrossfadeLayout) {
+            CrossfadeLayout crossfadeLayout = (CrossfadeLayout) mCrossFadeSlidingPaneLayout;
+            crossfadeLayout.setHardwareLayerDuringSlide(mHardwareLayerDuringSlide);
+            crossfadeLayout.setSnapshotDuringSlide(mSnapshotDuringSlide);
+            crossfadeLayout.setPrewarmOnTouch(mPrewarmOnTouch);
+        }
+    }
+
+    // animate crossFade() and released drags with a spring (CrossfadeLayout only)
+    protected boolean mSpringAnimation = false;
+    protected float mSpringStiffness = 1500f;
+    protected float mSpringDampingRatio = 1f;
+
+    /**
+     * if enabled crossFade() and released drags animate the pane with an interruptible spring, which keeps its
+     * velocity if the crossfader is toggled again mid-animation or continues with the velocity of a released drag.
+     * only supported by the CrossfadeLayout (see withCrossfadeLayout()), the SlidingPaneLayout based layouts keep
+     * their fixed settle animation
+     *
+     * @param springAnimation
+     * @return
+     */
+    public Crossfader withSpringAnimation(boolean springAnimation) {
+        this.mSpringAnimation = springAnimation;
+        applySpringAnimation();
+        return this;
+    }
+
+    /**
+     * define the spring used by withSpringAnimation
+     *
+     * @param stiffness    the stiffness of the spring, default 1500 (higher is faster)
+     * @param dampingRatio the damping ratio of the spring, default 1 (no overshoot), lower values bounce at the end
+     * @return
+     */
+    public Crossfader withSpringParameters(float stiffness, float dampingRatio) {
+        this.mSpringStiffness = stiffness;
+        this.mSpringDampingRatio = dampingRatio;
+        applySpringAnimation();
+        return this;
+    }
+
+    /**
+     * helper method to pass the spring configuration to the CrossfadeLayout
+     */
+    private void applySpringAnimation() {
+        if (mCrossFadeSlidingPaneLayout instanceof CrossfadeLayout) {
+            CrossfadeLayout crossfadeLayout = (CrossfadeLayout) mCrossFadeSlidingPaneLayout;
+            crossfadeLayout.setSpringParameters(mSpringStiffness, mSpringDampingRatio);
+            crossfadeLayout.setSpringAnimation(mSpringAnimation);
+        }
+    }
+
     //a panelSlideListener
     protected SlidingPaneLayout.PanelSlideListener mPanelSlideListener;
 
@@ -163,6 +442,65 @@ public class Crossfader<T extends SlidingPaneLayout & ICrossFadeSlidingPaneLayou
         return this;
     }
 
+    // the additional listeners added before the crossfader was built
+    private ArrayList<SlidingPaneLayout.PanelSlideListener> mPanelSlideListeners = new ArrayList<>();
+
+    /**
+     * adds a PanelSlideListener in addition to the one set by withPanelSlideListener.
+     * all listeners are dispatched by the crossfader layout in one loop. the CrossfadeLayout does not allocate for this,
+     * the SlidingPaneLayout based layouts allocate one iterator per event (within the SlidingPaneLayout).
+     * listeners can be added or removed from within a callback, the change applies to the next event
+     *
+     * @param panelSlideListener
+     * @return
+     */
+    public Crossfader addPanelSlideListener(SlidingPaneLayout.PanelSlideListener panelSlideListener) {
+        if (mCrossFadeSlidingPaneLayout != null) {
+            mCrossFadeSlidingPaneLayout.addPanelSlideListener(panelSlideListener);
+        } else if (!mPanelSlideListeners.contains(panelSlideListener)) {
+            mPanelSlideListeners.add(panelSlideListener);
+        }
+        return this;
+    }
+
+    /**
+     * removes a PanelSlideListener added by addPanelSlideListener
+     *
+     * @param panelSlideListener
+     * @return
+     */
+    public Crossfader removePanelSlideListener(SlidingPaneLayout.PanelSlideListener panelSlideListener) {
+        if (mCrossFadeSlidingPaneLayout != null) {
+            mCrossFadeSlidingPaneLayout.removePanelSlideListener(panelSlideListener);
+        } else {
+            mPanelSlideListeners.remove(panelSlideListener);
+        }
+        return this;
+    }
+
+    // the listener which collects the frame timings of every slide
+    protected SlideMetricsListener mSlideMetricsListener;
+    private SlideMetricsTracker mSlideMetricsTracker;
+
+    /**
+     * set a SlideMetricsListener which receives a summary of the frame timings (frame count, percentiles, janky frames)
+     * after each slide, started by a drag or crossFade(). The frame timings are only collected if a listener is set.
+     *
+     * @param slideMetricsListener
+     * @return
+     */
+    public Crossfader withSlideMetricsListener(SlideMetricsListener slideMetricsListener) {
+        this.mSlideMetricsListener = slideMetricsListener;
+        if (mSlideMetricsTracker != null) {
+            mSlideMetricsTracker.cancel();
+            mSlideMetricsTracker = null;
+        }
+        if (mSlideMetricsListener != null && mContent != null) {
+            mSlideMetricsTracker = new SlideMetricsTracker(mContent.getContext(), mSlideMetricsListener);
+        }
+        return this;
+    }
+
     // if enabled we use a PanelSlideListener to resize the content panel instead of moving it out
     protected boolean mResizeContentPanel = false;
 
@@ -179,61 +517,269 @@ public class Crossfader<T extends SlidingPaneLayout & ICrossFadeSlidingPaneLayou
     }
 
 
+    /**
+     * relayout the content on every frame of the slide (default)
+     */
+    public static final long RESIZE_CONTENT_RELAYOUT_EVERY_FRAME = 0;
+    /**
+     * never relayout the content while sliding, only once the pane is opened or closed
+     */
+    public static final long RESIZE_CONTENT_RELAYOUT_ON_SETTLE = -1;
+
+    // the minimum time in ms between two relayouts of the content while the pane slides
+    protected long mResizeContentRelayoutInterval = RESIZE_CONTENT_RELAYOUT_EVERY_FRAME;
+    // the time of the last relayout of the content while the pane slides
+    private long mLastContentRelayout = 0;
+
+    /**
+     * define how often the content panel is allowed to relayout while the pane slides (only used with withResizeContentPanel)
+     * between two relayouts the content keeps its width and just moves with the pane. Once the pane is opened or closed
+     * the final width is applied with a single layout pass.
+     * <p/>
+     * RESIZE_CONTENT_RELAYOUT_EVERY_FRAME (default) resizes the content with every frame
+     * RESIZE_CONTENT_RELAYOUT_ON_SETTLE does not resize the content until the pane settled
+     * any other value is the minimum time in ms between two relayouts
+     *
+     * @param intervalMillis
+     * @return
+     */
+    public Crossfader withResizeContentPanelRelayoutInterval(long intervalMillis) {
+        this.mResizeContentRelayoutInterval = intervalMillis;
+        return this;
+    }
+
+    // records the input to frame latency of drags, null if disabled
+    private InputLatencyProbe mInputLatencyProbe;
+
+    /**
+     * if enabled the crossfader layout records for every frame of a drag the time from the touch event until the frame
+     * which applied its offset was drawn. the latencies are aggregated in a histogram with fixed buckets, see
+     * getInputLatencyHistogram. the probe does not allocate in the touch or draw path, so it can stay enabled in
+     * production. supported by the CrossFadeSlidingPaneLayout (also the gmail style) and the CrossfadeLayout
+     *
+     * @param inputLatencyProbe
+     * @return
+     */
+    public Crossfader withInputLatencyProbe(boolean inputLatencyProbe) {
+        if (inputLatencyProbe && mInputLatencyProbe == null) {
+            mInputLatencyProbe = new InputLatencyProbe();
+        } else if (!inputLatencyProbe) {
+            mInputLatencyProbe = null;
+        }
+        if (mCrossFadeSlidingPaneLayout != null) {
+            applyInputLatencyProbe();
+        }
+        return this;
+    }
+
+    /**
+     * a small helper method to set the InputLatencyProbe on the crossfader layouts which support it
+     */
+    private void applyInputLatencyProbe() {
+        if (mCrossFadeSlidingPaneLayout instanceof CrossFadeSlidingPaneLayout) {
+            ((CrossFadeSlidingPaneLayout) mCrossFadeSlidingPaneLayout).setInputLatencyProbe(mInputLatencyProbe);
+        } else if (mCrossFadeSlidingPaneLayout instanceof CrossfadeLayout) {
+            ((CrossfadeLayout) mCrossFadeSlidingPaneLayout).setInputLatencyProbe(mInputLatencyProbe);
+        }
+    }
+
+    /**
+     * @return the histogram of the input to frame latencies of all drags so far (in nanoseconds), null if the probe is not enabled
+     */
+    public LatencyHistogram getInputLatencyHistogram() {
+        return mInputLatencyProbe != null ? mInputLatencyProbe.getHistogram() : null;
+    }
+
+    /**
+     * @return the amount of drags recorded by the input latency probe, 0 if the probe is not enabled
+     */
+    public int getInputLatencyDragCount() {
+        return mInputLatencyProbe != null ? mInputLatencyProbe.getDragCount() : 0;
+    }
+
+    /**
+     * removes all latencies recorded by the input latency probe
+     */
+    public void resetInputLatencyHistogram() {
+        if (mInputLatencyProbe != null) {
+            mInputLatencyProbe.reset();
+        }
+    }
+
     /**
      * a small helper class to enable resizing of the content panel / or keep the default behavior
      */
     private void enableResizeContentPanel(boolean enable) {
         if (enable) {
-            //activate the resizeFunction
-            DisplayMetrics displaymetrics = getContent().getContext().getResources().getDisplayMetrics();
-            final int screenWidth = displaymetrics.widthPixels;
-
-            ViewGroup.LayoutParams lp = getContent().getLayoutParams();
-            lp.width = screenWidth - getSecondWidth();
-            getContent().setLayoutParams(lp);
-
-            if (mCrossFadeSlidingPaneLayout != null) {
-                mCrossFadeSlidingPaneLayout.setPanelSlideListener(new SlidingPaneLayout.PanelSlideListener() {
-                    @Override
-                    public void onPanelSlide(View panel, float slideOffset) {
-                        ViewGroup.LayoutParams lp = getContent().getLayoutParams();
-                        lp.width = (int) (screenWidth - getSecondWidth() - ((getFirstWidth() - getSecondWidth()) * slideOffset));
-                        getContent().setLayoutParams(lp);
-
-                        if (mPanelSlideListener != null) {
-                            mPanelSlideListener.onPanelSlide(panel, slideOffset);
-                        }
-                    }
-
-                    @Override
-                    public void onPanelOpened(View panel) {
-                        if (mPanelSlideListener != null) {
-                            mPanelSlideListener.onPanelOpened(panel);
-                        }
-                    }
-
-                    @Override
-                    public void onPanelClosed(View panel) {
-                        if (mPanelSlideListener != null) {
-                            mPanelSlideListener.onPanelClosed(panel);
-                        }
-                    }
-                });
+            //the content already gets the width of the restored state with the first layout
+            //if the crossfader layout was not measured yet, the width is applied while it is measured
+            if (mPaneWidths.hasPaneWidth()) {
+                setContentWidth(mPaneWidths.getContentWidth(getSlideOffset()));
             }
         } else {
             //reset the resizeFunction
-            ViewGroup.LayoutParams lp = getContent().getLayoutParams();
-            lp.width = ViewGroup.LayoutParams.MATCH_PARENT;
-            getContent().setLayoutParams(lp);
+            setContentWidth(ViewGroup.LayoutParams.MATCH_PARENT);
+        }
+    }
+
+    // the widths derived from the measured width of the crossfader layout and the first and second width
+    private final PaneWidths mPaneWidths = new PaneWidths();
+
+    /**
+     * applies the width of the content for the new width of the crossfader layout.
+     * it is called while the crossfader layout is measured, so the LayoutParams are changed without requesting a layout
+     */
+    private PaneWidths.OnPaneWidthChangedListener mOnPaneWidthChangedListener = new PaneWidths.OnPaneWidthChangedListener() {
+        @Override
+        public void onPaneWidthChanged(PaneWidths paneWidths) {
+            if (mResizeContentPanel) {
+                getContent().getLayoutParams().width = paneWidths.getContentWidth(getSlideOffset());
+            }
+        }
+    };
+
+    /**
+     * measures the crossfader layouts which do not report their measured width (custom ICrossFadeSlidingPaneLayouts)
+     * with their size after each layout, a changed content width needs an additional layout pass here
+     */
+    private View.OnLayoutChangeListener mPaneLayoutChangeListener = new View.OnLayoutChangeListener() {
+        @Override
+        public void onLayoutChange(View v, int left, int top, int right, int bottom, int oldLeft, int oldTop, int oldRight, int oldBottom) {
+            if (mPaneWidths.setPaneWidth(right - left - v.getPaddingLeft() - v.getPaddingRight()) && mResizeContentPanel) {
+                getContent().requestLayout();
+            }
+        }
+    };
+
+    /**
+     * the PanelSlideListener added to the CrossFadeSlidingPaneLayout before the listeners of the user.
+     * it resizes the content (if enabled) and tracks the slide metrics (if enabled), also if the content settles at an
+     * intermediate stage of the CrossfadeLayout
+     */
+    private CrossfaderPanelSlideListener mCrossfaderPanelSlideListener = new CrossfaderPanelSlideListener();
+
+    // creates the lazy views once the crossfader layout prepares a slide (touch down, hover or programmatic slide)
+    private OnPrepareSlideListener mOnPrepareSlideListener = new OnPrepareSlideListener() {
+        @Override
+        public void onPrepareSlide() {
+            createLazyViews();
+        }
+    };
+
+    private class CrossfaderPanelSlideListener implements SlidingPaneLayout.PanelSlideListener, CrossfadeLayout.OnStageSettledListener {
+        @Override
+        public void onPanelSlide(View panel, float slideOffset) {
+            if (mSlideMetricsTracker != null) {
+                mSlideMetricsTracker.start();
+            }
+
+            //the lazy views are created once the slide is prepared, this only covers slides which were not prepared
+            createLazyViews();
+
+            if (mResizeContentPanel && mPaneWidths.hasPaneWidth()) {
+                resizeContent(mPaneWidths.getContentWidth(slideOffset), mPaneWidths.getClosedContentWidth());
+            }
+        }
+
+        @Override
+        public void onPanelOpened(View panel) {
+            if (mResizeContentPanel && mPaneWidths.hasPaneWidth()) {
+                setContentWidth(mPaneWidths.getOpenedContentWidth());
+            }
+
+            if (mSlideMetricsTracker != null) {
+                mSlideMetricsTracker.stop();
+            }
+        }
+
+        @Override
+        public void onPanelClosed(View panel) {
+            if (mResizeContentPanel && mPaneWidths.hasPaneWidth()) {
+                setContentWidth(mPaneWidths.getClosedContentWidth());
+            }
+
+            if (mSlideMetricsTracker != null) {
+                mSlideMetricsTracker.stop();
+            }
+        }
+
+        @Override
+        public void onStageSettled(View panel, int stage, float slideOffset) {
+            if (mResizeContentPanel && mPaneWidths.hasPaneWidth()) {
+                setContentWidth(mPaneWidths.getContentWidth(slideOffset));
+            }
+
+            if (mSlideMetricsTracker != null) {
+                mSlideMetricsTracker.stop();
+            }
+        }
+    }
+
+    /**
+     * resizes the content while the pane slides, respecting the relayout interval
+     * the content is never left narrower than the visible area, if it would be (the pane moves towards closed)
+     * and no relayout is allowed yet, it is laid out at the closed width once, which covers the whole slide
+     *
+     * @param width       the exact width for the current offset
+     * @param closedWidth the width of the content if the pane is closed (the widest)
+     */
+    private void resizeContent(int width, int closedWidth) {
+        long now = SystemClock.uptimeMillis();
+        boolean relayoutAllowed = mResizeContentRelayoutInterval == RESIZE_CONTENT_RELAYOUT_EVERY_FRAME
+                || (mResizeContentRelayoutInterval > 0 && now - mLastContentRelayout >= mResizeContentRelayoutInterval);
 
-            if (mCrossFadeSlidingPaneLayout != null) {
-                mCrossFadeSlidingPaneLayout.setPanelSlideListener(mPanelSlideListener);
+        int currentWidth = getContent().getLayoutParams().width;
+        if (relayoutAllowed) {
+            if (setContentWidth(width)) {
+                mLastContentRelayout = now;
             }
+        } else if (currentWidth < width) {
+            setContentWidth(closedWidth);
+        }
+    }
+
+    /**
+     * define the width of the content, without touching the LayoutParams if nothing changed
+     *
+     * @param width
+     * @return true if a new width was set
+     */
+    private boolean setContentWidth(int width) {
+        ViewGroup.LayoutParams lp = getContent().getLayoutParams();
+        if (lp.width == width) {
+            return false;
         }
+        lp.width = width;
+        getContent().setLayoutParams(lp);
+        return true;
     }
 
+    /**
+     * @return the crossfader layout if it is a SlidingPaneLayout, null for the CrossfadeLayout (see getCrossFadeLayout())
+     */
+    @SuppressWarnings("unchecked")
     public T getCrossFadeSlidingPaneLayout() {
-        return mCrossFadeSlidingPaneLayout;
+        if (mCrossFadeLayout instanceof SlidingPaneLayout) {
+            return (T) mCrossFadeLayout;
+        }
+        return null;
+    }
+
+    /**
+     * @return the crossfader layout, a SlidingPaneLayout or the CrossfadeLayout (an ICrossFadeSlidingPaneLayout)
+     */
+    public ViewGroup getCrossFadeLayout() {
+        return mCrossFadeLayout;
+    }
+
+    /**
+     * a small helper method to keep the crossfader layout and its ICrossFadeSlidingPaneLayout in sync
+     *
+     * @param crossFadeLayout
+     */
+    private void setCrossFadeLayout(ViewGroup crossFadeLayout) {
+        this.mCrossFadeLayout = crossFadeLayout;
+        this.mCrossFadeSlidingPaneLayout = (ICrossFadeSlidingPaneLayout) crossFadeLayout;
     }
 
     /**
@@ -244,7 +790,7 @@ public class Crossfader<T extends SlidingPaneLayout & ICrossFadeSlidingPaneLayou
     }
 
     /**
-     * @return the first (default) view
+     * @return the first (default) view, null if it is created lazily and was not required yet
      */
     public View getFirst() {
         return mFirst;
@@ -258,7 +804,7 @@ public class Crossfader<T extends SlidingPaneLayout & ICrossFadeSlidingPaneLayou
     }
 
     /**
-     * @return the second (slided) view
+     * @return the second (slided) view, null if it is created lazily and was not required yet
      */
     public View getSecond() {
         return mSecond;
@@ -272,9 +818,85 @@ public class Crossfader<T extends SlidingPaneLayout & ICrossFadeSlidingPaneLayou
     }
 
 
+    /**
+     * called once the crossfader was built by buildAsync
+     */
+    public interface OnBuildFinishedListener {
+        void onBuildFinished(Crossfader crossfader);
+    }
+
+    // the base layout inflated by buildAsync
+    private View mPrewarmedLayout = null;
+    // the pending inflation of buildAsync
+    private CrossfaderInflater.InflateRequest mInflateRequest = null;
+
+    /**
+     * inflates the base layout of the crossfader on a background thread (if it was not prewarmed)
+     * and builds the crossfader on the main thread afterwards. call cancelBuildAsync() if the crossfader is not needed
+     * anymore (e.g. the activity is destroyed) before it was built
+     *
+     * @param onBuildFinishedListener
+     */
+    public void buildAsync(final OnBuildFinishedListener onBuildFinishedListener) {
+        cancelBuildAsync();
+
+        View prewarmed = CrossfaderInflater.obtain(mBaseLayout);
+        if (prewarmed != null) {
+            mPrewarmedLayout = prewarmed;
+            build();
+            onBuildFinishedListener.onBuildFinished(this);
+            return;
+        }
+
+        mInflateRequest = CrossfaderInflater.inflate(mContent.getContext(), mBaseLayout, new CrossfaderInflater.OnInflateFinishedListener() {
+            @Override
+            public void onInflateFinished(View view) {
+                mInflateRequest = null;
+                mPrewarmedLayout = view;
+                build();
+                onBuildFinishedListener.onBuildFinished(Crossfader.this);
+            }
+        });
+    }
+
+    /**
+     * cancels a pending buildAsync, its listener is not called and the crossfader is not built
+     */
+    public void cancelBuildAsync() {
+        if (mInflateRequest != null) {
+            mInflateRequest.cancel();
+            mInflateRequest = null;
+        }
+    }
+
+    /**
+     * inflates the default base layout on a background thread and keeps it until a crossfader is built
+     *
+     * @param ctx
+     */
+    public static void prewarm(Context ctx) {
+        prewarm(ctx, R.layout.crossfader_base, 1);
+    }
+
+    /**
+     * inflates the given base layout count times on a background thread and keeps them until crossfaders are built
+     * with this base layout. the layouts are inflated with the application context of the given context, so the
+     * pool never keeps an activity
+     *
+     * @param ctx
+     * @param baseLayout
+     * @param count
+     */
+    public static void prewarm(Context ctx, @LayoutRes int baseLayout, int count) {
+        CrossfaderInflater.prewarm(ctx, baseLayout, count);
+    }
+
     /**
      * builds the crossfader and it's content views
      * will define all properties and define and add the layouts
+     * <p/>
+     * if the content is already placed in the R.id.content container of a crossfader layout (declared in the xml
+     * of the activity, see crossfader_base) the content stays attached and no base layout is inflated
      *
      * @return
      */
@@ -282,63 +904,355 @@ public class Crossfader<T extends SlidingPaneLayout & ICrossFadeSlidingPaneLayou
         if (mFirstWidth < mSecondWidth) {
             throw new RuntimeException("the first layout has to be the layout with the greater width");
         }
+        int previousWidth = mSecondWidth;
+        for (int i = 0; i < mStageWidths.size(); i++) {
+            int stageWidth = mStageWidths.get(i);
+            if (stageWidth <= previousWidth || stageWidth >= mFirstWidth) {
+                throw new RuntimeException("the stages have to be added from the narrowest to the widest and have to be between the second and the first layout");
+            }
+            previousWidth = stageWidth;
+        }
 
         //get the layout which should be replaced by the CrossFadeSlidingPaneLayout
         ViewGroup container = ((ViewGroup) mContent.getParent());
 
-        //remove the content from it's parent
-        container.removeView(mContent);
+        //the content was already declared within the content container of a crossfader layout in xml
+        //in this case we keep the content attached and skip the inflation and reparenting
+        boolean declaredInLayout = container.getId() == R.id.content && container.getParent() instanceof ICrossFadeSlidingPaneLayout;
+
+        //the default base layouts can be created in code, which already applies the final widths
+        boolean createdInCode = !declaredInLayout && mProgrammaticLayout && mPrewarmedLayout == null
+                && (mBaseLayout == R.layout.crossfader_base || mBaseLayout == R.layout.crossfader_gmail_style || mBaseLayout == R.layout.crossfader_layout);
 
-        //create the cross fader container
-        mCrossFadeSlidingPaneLayout = (T) LayoutInflater.from(mContent.getContext()).inflate(mBaseLayout, container, false);
-        container.addView(mCrossFadeSlidingPaneLayout);
+        if (declaredInLayout) {
+            setCrossFadeLayout((ViewGroup) container.getParent());
+        } else {
+            //remove the content from it's parent
+            container.removeView(mContent);
+
+            if (createdInCode) {
+                //create the cross fader container in code
+                if (mBaseLayout == R.layout.crossfader_layout) {
+                    CrossfadeLayout crossfadeLayout = new CrossfadeLayout(mContent.getContext());
+                    crossfadeLayout.setId(R.id.pane);
+                    crossfadeLayout.createContainers(mFirstWidth, mSecondWidth);
+                    setCrossFadeLayout(crossfadeLayout);
+                } else {
+                    CrossFadeSlidingPaneLayout crossFadeSlidingPaneLayout;
+                    if (mBaseLayout == R.layout.crossfader_gmail_style) {
+                        crossFadeSlidingPaneLayout = new GmailStyleCrossFadeSlidingPaneLayout(mContent.getContext());
+                    } else {
+                        crossFadeSlidingPaneLayout = new CrossFadeSlidingPaneLayout(mContent.getContext());
+                    }
+                    crossFadeSlidingPaneLayout.setId(R.id.pane);
+                    crossFadeSlidingPaneLayout.createContainers(mFirstWidth, mSecondWidth);
+                    setCrossFadeLayout(crossFadeSlidingPaneLayout);
+                }
+                container.addView(mCrossFadeLayout, ViewGroup.LayoutParams.MATCH_PARENT, ViewGroup.LayoutParams.MATCH_PARENT);
+            } else {
+                //create the cross fader container, or use a prewarmed one
+                View prewarmed = mPrewarmedLayout != null ? mPrewarmedLayout : CrossfaderInflater.obtain(mBaseLayout);
+                mPrewarmedLayout = null;
+                if (prewarmed != null) {
+                    //the prewarmed layout was inflated without a parent, the base layouts match the parent
+                    setCrossFadeLayout((ViewGroup) prewarmed);
+                    container.addView(mCrossFadeLayout, ViewGroup.LayoutParams.MATCH_PARENT, ViewGroup.LayoutParams.MATCH_PARENT);
+                } else {
+                    setCrossFadeLayout((ViewGroup) LayoutInflater.from(mContent.getContext()).inflate(mBaseLayout, container, false));
+                    container.addView(mCrossFadeLayout);
+                }
+            }
+        }
 
         //find the container layouts
-        FrameLayout mCrossFadePanel = (FrameLayout) mCrossFadeSlidingPaneLayout.findViewById(R.id.panel);
-        LinearLayout mCrossFadeFirst = (LinearLayout) mCrossFadeSlidingPaneLayout.findViewById(R.id.first);
-        LinearLayout mCrossFadeSecond = (LinearLayout) mCrossFadeSlidingPaneLayout.findViewById(R.id.second);
-        LinearLayout mCrossFadeContainer = (LinearLayout) mCrossFadeSlidingPaneLayout.findViewById(R.id.content);
+        mCrossFadePanel = (FrameLayout) mCrossFadeLayout.findViewById(R.id.panel);
+        mCrossFadeFirst = (LinearLayout) mCrossFadeLayout.findViewById(R.id.first);
+        mCrossFadeSecond = (LinearLayout) mCrossFadeLayout.findViewById(R.id.second);
+        mCrossFadeContainer = (LinearLayout) mCrossFadeLayout.findViewById(R.id.content);
 
-        //define the widths
-        setWidth(mCrossFadePanel, mFirstWidth);
-        setWidth(mCrossFadeFirst, mFirstWidth);
-        setWidth(mCrossFadeSecond, mSecondWidth);
-        setLeftMargin(mCrossFadeContainer, mSecondWidth);
+        //define the widths, only the LayoutParams which differ from the layout are touched
+        if (!createdInCode) {
+            setWidth(mCrossFadePanel, mFirstWidth);
+            setWidth(mCrossFadeFirst, mFirstWidth);
+            setWidth(mCrossFadeSecond, mSecondWidth);
+            setLeftMargin(mCrossFadeContainer, mSecondWidth);
+        }
 
-        //add content to the panel
-        mCrossFadeFirst.addView(mFirst, mFirstWidth, ViewGroup.LayoutParams.MATCH_PARENT);
-        mCrossFadeSecond.addView(mSecond, mSecondWidth, ViewGroup.LayoutParams.MATCH_PARENT);
+        //the content width follows the measured width of the crossfader layout
+        mPaneWidths.setWidths(mFirstWidth, mSecondWidth);
+        mPaneWidths.setOnPaneWidthChangedListener(mOnPaneWidthChangedListener);
+        if (mCrossFadeSlidingPaneLayout instanceof CrossFadeSlidingPaneLayout) {
+            ((CrossFadeSlidingPaneLayout) mCrossFadeSlidingPaneLayout).setPaneWidths(mPaneWidths);
+        } else if (mCrossFadeSlidingPaneLayout instanceof CrossfadeLayout) {
+            ((CrossfadeLayout) mCrossFadeSlidingPaneLayout).setPaneWidths(mPaneWidths);
+        } else {
+            mCrossFadeLayout.addOnLayoutChangeListener(mPaneLayoutChangeListener);
+        }
 
         //add back main content
-        mCrossFadeContainer.addView(mContent, ViewGroup.LayoutParams.MATCH_PARENT, ViewGroup.LayoutParams.MATCH_PARENT);
+        if (!declaredInLayout) {
+            mCrossFadeContainer.addView(mContent, ViewGroup.LayoutParams.MATCH_PARENT, ViewGroup.LayoutParams.MATCH_PARENT);
+        }
 
         // try to restore all saved values again
         boolean cross_faded = false;
+        int stage = -1;
+        float offset = -1;
         if (mSavedInstance != null) {
             cross_faded = mSavedInstance.getBoolean(BUNDLE_CROSS_FADED, false);
+            stage = mSavedInstance.getInt(BUNDLE_STAGE, -1);
+            offset = mSavedInstance.getFloat(BUNDLE_OFFSET, -1);
         }
 
-        if (cross_faded) {
-            mCrossFadeSlidingPaneLayout.setOffset(1);
+        //add content to the panel, a lazy view is only created right away if it is visible
+        addFirst(offset >= 0 ? offset > 0 : cross_faded);
+        addSecond(offset >= 0 ? offset < 1 : !cross_faded);
+
+        //add the intermediate stages
+        if (!mStages.isEmpty()) {
+            if (!(mCrossFadeSlidingPaneLayout instanceof CrossfadeLayout)) {
+                throw new RuntimeException("stages are only supported by the CrossfadeLayout, use withCrossfadeLayout()");
+            }
+            for (int i = 0; i < mStages.size(); i++) {
+                ((CrossfadeLayout) mCrossFadeSlidingPaneLayout).addStage(mStages.get(i), mStageWidths.get(i));
+            }
+        }
+
+        //restore the state before the first layout, it is applied by the first layout pass without an animation
+        if (mCrossFadeSlidingPaneLayout instanceof CrossfadeLayout) {
+            CrossfadeLayout crossfadeLayout = (CrossfadeLayout) mCrossFadeSlidingPaneLayout;
+            if (offset >= 0) {
+                //the exact offset, also if the content was saved between two stages
+                crossfadeLayout.setSlideOffset(Math.min(1, offset));
+            } else {
+                if (stage < 0 || stage >= crossfadeLayout.getStageCount()) {
+                    stage = cross_faded ? crossfadeLayout.getStageCount() - 1 : 0;
+                }
+                crossfadeLayout.setStage(stage);
+            }
         } else {
-            mCrossFadeSlidingPaneLayout.setOffset(0);
+            //the SlidingPaneLayout only rests closed or opened, which is the exact offset for it
+            mCrossFadeSlidingPaneLayout.setOffset(cross_faded ? 1 : 0);
+            if (cross_faded) {
+                mCrossFadeSlidingPaneLayout.openPane();
+            }
+        }
+
+        //create the remaining lazy views once the main thread is idle
+        if (mLazyViewsWhenIdle && (mFirst == null || mSecond == null)) {
+            Looper.myQueue().addIdleHandler(new MessageQueue.IdleHandler() {
+                @Override
+                public boolean queueIdle() {
+                    createLazyViews();
+                    return false;
+                }
+            });
         }
 
-        //set the PanelSlideListener for the CrossFadeSlidingPaneLayout
+        //add the PanelSlideListeners to the CrossFadeSlidingPaneLayout, the internal one first
+        mCrossFadeSlidingPaneLayout.addPanelSlideListener(mCrossfaderPanelSlideListener);
         mCrossFadeSlidingPaneLayout.setPanelSlideListener(mPanelSlideListener);
+        for (int i = 0; i < mPanelSlideListeners.size(); i++) {
+            mCrossFadeSlidingPaneLayout.addPanelSlideListener(mPanelSlideListeners.get(i));
+        }
+        mPanelSlideListeners.clear();
 
         //set the ability to slide
         mCrossFadeSlidingPaneLayout.setCanSlide(mCanSlide);
 
+        //hardware layers or snapshots while sliding and the prewarm on touch if requested
+        applyRenderingModes();
+
+        //create the lazy views before a slide starts instead of within its first frame
+        if (mCrossFadeSlidingPaneLayout instanceof CrossFadeSlidingPaneLayout) {
+            ((CrossFadeSlidingPaneLayout) mCrossFadeSlidingPaneLayout).setOnPrepareSlideListener(mOnPrepareSlideListener);
+        } else if (mCrossFadeSlidingPaneLayout instanceof CrossfadeLayout) {
+            ((CrossfadeLayout) mCrossFadeSlidingPaneLayout).setOnPrepareSlideListener(mOnPrepareSlideListener);
+        }
+
+        //record the input latency of drags if requested
+        applyInputLatencyProbe();
+
+        //animate with a spring if requested
+        applySpringAnimation();
+
         //define that we don't want a slider color
-        mCrossFadeSlidingPaneLayout.setSliderFadeColor(Color.TRANSPARENT);
+        if (mCrossFadeSlidingPaneLayout instanceof SlidingPaneLayout) {
+            ((SlidingPaneLayout) mCrossFadeSlidingPaneLayout).setSliderFadeColor(Color.TRANSPARENT);
+        }
 
         //enable / disable the resize functionality
         enableResizeContentPanel(mResizeContentPanel);
 
+        //collect the slide metrics if requested
+        if (mSlideMetricsListener != null && mSlideMetricsTracker == null) {
+            mSlideMetricsTracker = new SlideMetricsTracker(mContent.getContext(), mSlideMetricsListener);
+        }
+
         return this;
     }
 
+    // the panel, the containers of the first and second view and the container of the content
+    private FrameLayout mCrossFadePanel;
+    private LinearLayout mCrossFadeFirst;
+    private LinearLayout mCrossFadeSecond;
+    private LinearLayout mCrossFadeContainer;
+
+    /**
+     * removes the crossfader layout (with the content and both views) from its parent, without changing its state.
+     * this allows to retain the built crossfader across a configuration change (e.g. in a ViewModel) and to attach it
+     * to the new window with attachTo, instead of building it again.
+     * the retained views keep the context they were created with, including its theme and configuration. they are
+     * not inflated again, so a change of the uiMode (e.g. dark mode), the locale or the density is not applied to
+     * them. create them with a context which outlives the activity (e.g. a ContextThemeWrapper around the application
+     * context) and build the crossfader again for configuration changes which affect the views
+     *
+     * @return
+     */
+    public Crossfader detach() {
+        if (mCrossFadeSlidingPaneLayout == null) {
+            return this;
+        }
+        if (mSlideMetricsTracker != null) {
+            mSlideMetricsTracker.cancel();
+        }
+        ViewGroup parent = (ViewGroup) mCrossFadeLayout.getParent();
+        if (parent != null) {
+            parent.removeView(mCrossFadeLayout);
+        }
+        return this;
+    }
+
+    /**
+     * attaches a built (and detached) crossfader layout to the given container of the new window.
+     * the state is kept, the layout is applied by the first layout pass without an animation.
+     * the views keep their context, theme and uiMode, see detach()
+     *
+     * @param container
+     * @return
+     */
+    public Crossfader attachTo(ViewGroup container) {
+        if (mCrossFadeLayout == null) {
+            throw new RuntimeException("the crossfader has to be built before it can be attached");
+        }
+        detach();
+        //the window may have a different width, the content width is updated once the crossfader layout is measured
+        container.addView(mCrossFadeLayout, ViewGroup.LayoutParams.MATCH_PARENT, ViewGroup.LayoutParams.MATCH_PARENT);
+        return this;
+    }
+
+    /**
+     * updates the widths of the crossfader (e.g. after it was attached to a new window),
+     * only the LayoutParams of the widths which changed are touched. before build() only the widths are stored
+     *
+     * @param firstWidth
+     * @param secondWidth
+     * @return
+     */
+    public Crossfader updateWidths(int firstWidth, int secondWidth) {
+        if (firstWidth < secondWidth) {
+            throw new RuntimeException("the first layout has to be the layout with the greater width");
+        }
+        if (mCrossFadeSlidingPaneLayout == null) {
+            mFirstWidth = firstWidth;
+            mSecondWidth = secondWidth;
+            return this;
+        }
+        boolean changed = mPaneWidths.setWidths(firstWidth, secondWidth);
+        if (firstWidth != mFirstWidth) {
+            mFirstWidth = firstWidth;
+            setWidth(mCrossFadePanel, firstWidth);
+            setWidth(mCrossFadeFirst, firstWidth);
+        }
+        if (secondWidth != mSecondWidth) {
+            mSecondWidth = secondWidth;
+            setWidth(mCrossFadeSecond, secondWidth);
+            setLeftMargin(mCrossFadeContainer, secondWidth);
+        }
+        if (changed && mResizeContentPanel) {
+            enableResizeContentPanel(true);
+        }
+        return this;
+    }
+
+    /**
+     * creates the views defined by a ViewProvider or layout which were not created yet
+     */
+    public void createLazyViews() {
+        if (mCrossFadeSlidingPaneLayout == null) {
+            return;
+        }
+        addFirst(true);
+        addSecond(true);
+    }
+
+    /**
+     * adds the first view to its container, if it was not added yet
+     *
+     * @param create true if a lazy view should be created now
+     */
+    private void addFirst(boolean create) {
+        if (mCrossFadeFirst.getChildCount() > 0) {
+            return;
+        }
+        if (mFirst == null && mFirstProvider != null && create) {
+            mFirst = mFirstProvider.createView(mCrossFadeFirst);
+        }
+        if (mFirst != null) {
+            mCrossFadeFirst.addView(mFirst, mFirstWidth, ViewGroup.LayoutParams.MATCH_PARENT);
+        }
+    }
+
+    /**
+     * adds the second view to its container, if it was not added yet
+     *
+     * @param create true if a lazy view should be created now
+     */
+    private void addSecond(boolean create) {
+        if (mCrossFadeSecond.getChildCount() > 0) {
+            return;
+        }
+        if (mSecond == null && mSecondProvider != null && create) {
+            mSecond = mSecondProvider.createView(mCrossFadeSecond);
+        }
+        if (mSecond != null) {
+            mCrossFadeSecond.addView(mSecond, mSecondWidth, ViewGroup.LayoutParams.MATCH_PARENT);
+        }
+    }
+
+    /**
+     * a ViewProvider which inflates the given layout
+     */
+    private static class LayoutViewProvider implements ViewProvider {
+        private final int mLayout;
+
+        LayoutViewProvider(@LayoutRes int layout) {
+            this.mLayout = layout;
+        }
+
+        @Override
+        public View createView(ViewGroup parent) {
+            return LayoutInflater.from(parent.getContext()).inflate(mLayout, parent, false);
+        }
+    }
+
+    /**
+     * returns the current offset of the pane, 0 is closed and 1 is opened. it is a plain value, updated with every
+     * frame of a slide before the PanelSlideListeners are called, so it can be read while drawing
+     * (e.g. by panel content which applies its own effects in the draw phase) without registering a listener.
+     * custom crossfader layouts only report 0 or 1
+     *
+     * @return
+     */
+    public float getSlideOffset() {
+        if (mCrossFadeSlidingPaneLayout instanceof CrossfadeLayout) {
+            return ((CrossfadeLayout) mCrossFadeSlidingPaneLayout).getSlideOffset();
+        } else if (mCrossFadeSlidingPaneLayout instanceof CrossFadeSlidingPaneLayout) {
+            return ((CrossFadeSlidingPaneLayout) mCrossFadeSlidingPaneLayout).getSlideOffset();
+        }
+        return mCrossFadeSlidingPaneLayout != null && mCrossFadeSlidingPaneLayout.isOpen() ? 1 : 0;
+    }
+
     /**
      * returns if the crossfader is currently opened (the second view is shown)
      *
@@ -348,17 +1262,96 @@ public class Crossfader<T extends SlidingPaneLayout & ICrossFadeSlidingPaneLayou
         return mCrossFadeSlidingPaneLayout.isOpen();
     }
 
+    /**
+     * @return the stage the pane is closest to, 0 is the second view and getStageCount() - 1 the first view
+     */
+    public int getStage() {
+        if (mCrossFadeSlidingPaneLayout instanceof CrossfadeLayout) {
+            return ((CrossfadeLayout) mCrossFadeSlidingPaneLayout).getStage();
+        }
+        return isCrossFaded() ? 1 : 0;
+    }
+
+    /**
+     * @return the number of stages, 2 (second and first view) if no stages were added by withStage
+     */
+    public int getStageCount() {
+        return mStages.size() + 2;
+    }
+
+    /**
+     * slides the pane to the given stage, see withStage
+     *
+     * @param stage 0 is the second view and getStageCount() - 1 the first view
+     */
+    public void slideToStage(int stage) {
+        if (!(mCrossFadeSlidingPaneLayout instanceof CrossfadeLayout)) {
+            if (stage == 0 ? isCrossFaded() : !isCrossFaded()) {
+                crossFade();
+            }
+            return;
+        }
+
+        //before the first layout the stage is applied directly, there is no slide to measure
+        if (mSlideMetricsTracker != null && isLaidOut()) {
+            mSlideMetricsTracker.start();
+        }
+
+        //the hidden view may be required now
+        createLazyViews();
+
+        boolean sliding = ((CrossfadeLayout) mCrossFadeSlidingPaneLayout).slideToStage(stage);
+
+        //nothing to measure if the pane does not slide
+        if (!sliding && mSlideMetricsTracker != null) {
+            mSlideMetricsTracker.cancel();
+        }
+    }
+
     /**
      * crossfade the current crossfader (toggle between first and second view)
      */
     public void crossFade() {
+        //before the first layout the state is applied directly, there is no slide to measure
+        if (mSlideMetricsTracker != null && isLaidOut()) {
+            mSlideMetricsTracker.start();
+        }
+
+        //the hidden view is now required
+        createLazyViews();
+
+        boolean sliding;
         if (mCrossFadeSlidingPaneLayout.isOpen()) {
-            mCrossFadeSlidingPaneLayout.closePane();
+            sliding = mCrossFadeSlidingPaneLayout.closePane();
         } else {
-            mCrossFadeSlidingPaneLayout.openPane();
+            sliding = mCrossFadeSlidingPaneLayout.openPane();
+        }
+
+        //nothing to measure if the pane does not slide
+        if (!sliding && mSlideMetricsTracker != null) {
+            mSlideMetricsTracker.cancel();
         }
     }
 
+    /**
+     * custom ICrossFadeSlidingPaneLayouts may report a slide for openPane and closePane before their first layout
+     * (like the SlidingPaneLayout does), so the slide metrics are only started for a laid out layout
+     *
+     * @return true if the crossfader layout is attached and was laid out
+     */
+    private boolean isLaidOut() {
+        return ViewCompat.isAttachedToWindow(mCrossFadeLayout) && ViewCompat.isLaidOut(mCrossFadeLayout);
+    }
+
+    /**
+     * returns if the metrics of a slide are currently collected
+     *
+     * @return
+     */
+    boolean isTrackingSlideMetrics() {
+        return mSlideMetricsTracker != null && mSlideMetricsTracker.isRunning();
+    }
+
     /**
      * add the values to the bundle for saveInstanceState
      *
@@ -368,30 +1361,41 @@ public class Crossfader<T extends SlidingPaneLayout & ICrossFadeSlidingPaneLayou
     public Bundle saveInstanceState(Bundle savedInstanceState) {
         if (savedInstanceState != null) {
             savedInstanceState.putBoolean(BUNDLE_CROSS_FADED, mCrossFadeSlidingPaneLayout.isOpen());
+            savedInstanceState.putFloat(BUNDLE_OFFSET, getSlideOffset());
+            if (mCrossFadeSlidingPaneLayout instanceof CrossfadeLayout) {
+                savedInstanceState.putInt(BUNDLE_STAGE, ((CrossfadeLayout) mCrossFadeSlidingPaneLayout).getStage());
+            }
         }
         return savedInstanceState;
     }
 
     /**
-     * define the width of the given view
+     * define the width of the given view, the LayoutParams are only touched if the width changed
      *
      * @param view
      * @param width
      */
     protected void setWidth(View view, int width) {
         ViewGroup.LayoutParams lp = view.getLayoutParams();
+        if (lp.width == width) {
+            return;
+        }
         lp.width = width;
         view.setLayoutParams(lp);
     }
 
     /**
-     * define the left margin of the given view
+     * define the left margin of the given view, the LayoutParams are only touched if the margin changed
      *
      * @param view
      * @param leftMargin
      */
     protected void setLeftMargin(View view, int leftMargin) {
-        SlidingPaneLayout.LayoutParams lp = (SlidingPaneLayout.LayoutParams) view.getLayoutParams();
+        ViewGroup.MarginLayoutParams lp = (ViewGroup.MarginLayoutParams) view.getLayoutParams();
+        if (lp.leftMargin == leftMargin && lp.rightMargin == 0
+                && (Build.VERSION.SDK_INT < Build.VERSION_CODES.JELLY_BEAN_MR1 || (lp.getMarginStart() == leftMargin && lp.getMarginEnd() == 0))) {
+            return;
+        }
         lp.leftMargin = leftMargin;
         lp.rightMargin = 0;
 
@@ -0,0 +1,96 @@
+package com.mikepenz.crossfader.metrics;
+
+import android.view.MotionEvent;
+import android.view.ViewTreeObserver;
+
+/**
+ * Measures how far the panel lags behind the finger while it is dragged. For every frame which applied the offset of
+ * a touch event the time from MotionEvent.getEventTime() until this frame is drawn (on the main thread) is recorded
+ * into a LatencyHistogram. Has to be registered as OnDrawListener of the window of the crossfader layout.
+ * Nothing is allocated in the touch or draw path, so the probe can stay enabled in production.
+ * Has to be used from the main thread.
+ */
+public class InputLatencyProbe implements ViewTreeObserver.OnDrawListener {
+    private final LatencyHistogram mHistogram = new LatencyHistogram();
+
+    // true between a touch down and up / cancel
+    private boolean mTouching = false;
+    // true once the current touch moved the pane
+    private boolean mDragging = false;
+    private int mDragCount = 0;
+
+    // the event time of the latest touch event which was not applied yet, -1 if there is none
+    private long mPendingEventTime = -1;
+    // the event time of the latest touch event which was applied and not drawn yet, -1 if there is none
+    private long mAppliedEventTime = -1;
+
+    /**
+     * called for every touch event the crossfader layout intercepts or handles
+     *
+     * @param ev
+     */
+    public void onTouchEvent(MotionEvent ev) {
+        final int action = ev.getActionMasked();
+        if (action == MotionEvent.ACTION_DOWN) {
+            mTouching = true;
+            mDragging = false;
+            mPendingEventTime = -1;
+            mAppliedEventTime = -1;
+        } else if (action == MotionEvent.ACTION_MOVE) {
+            if (mTouching) {
+                mPendingEventTime = ev.getEventTime() * 1000000L;
+            }
+        } else if (action == MotionEvent.ACTION_UP || action == MotionEvent.ACTION_CANCEL) {
+            mTouching = false;
+            mPendingEventTime = -1;
+        }
+    }
+
+    /**
+     * called after the crossfader layout applied a new offset
+     */
+    public void onOffsetApplied() {
+        if (mPendingEventTime < 0) {
+            //the offset was not caused by a touch event (e.g. the pane settles after the finger was lifted)
+            return;
+        }
+        if (!mDragging) {
+            mDragging = true;
+            mDragCount++;
+        }
+        mAppliedEventTime = mPendingEventTime;
+        mPendingEventTime = -1;
+    }
+
+    @Override
+    public void onDraw() {
+        if (mAppliedEventTime < 0) {
+            return;
+        }
+        //the event time is based on the same monotonic clock as System.nanoTime(), with a resolution of 1ms
+        mHistogram.record(System.nanoTime() - mAppliedEventTime);
+        mAppliedEventTime = -1;
+    }
+
+    /**
+     * @return the histogram of all latencies recorded so far
+     */
+    public LatencyHistogram getHistogram() {
+        return mHistogram;
+    }
+
+    /**
+     * @return the amount of drags which moved the pane so far
+     */
+    public int getDragCount() {
+        return mDragCount;
+    }
+
+    /**
+     * removes all recorded latencies and drags
+     */
+    public void reset() {
+        mHistogram.reset();
+        mDragCount = 0;
+    }
+}
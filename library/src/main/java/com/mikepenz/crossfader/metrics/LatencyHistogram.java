@@ -0,0 +1,140 @@
+package com.mikepenz.crossfader.metrics;
+
+/**
+ * A histogram of latencies with fixed buckets. Recording a value does not allocate, so it can be used on every frame.
+ * All durations are in nanoseconds. Has to be used from the main thread.
+ */
+public class LatencyHistogram {
+    // the upper bounds (exclusive) of the buckets in milliseconds, the last bucket takes all larger values
+    private static final int[] BUCKET_UPPER_BOUNDS_MS = new int[]{4, 8, 12, 16, 20, 25, 33, 42, 50, 67, 100, 150, 250};
+
+    private final long[] mCounts = new long[BUCKET_UPPER_BOUNDS_MS.length + 1];
+    private long mTotalCount = 0;
+    private long mSum = 0;
+    private long mMax = 0;
+
+    /**
+     * adds a latency to its bucket
+     *
+     * @param latency
+     */
+    public void record(long latency) {
+        if (latency < 0) {
+            latency = 0;
+        }
+        mCounts[getBucket(latency)]++;
+        mTotalCount++;
+        mSum += latency;
+        if (latency > mMax) {
+            mMax = latency;
+        }
+    }
+
+    /**
+     * removes all recorded latencies
+     */
+    public void reset() {
+        for (int i = 0; i < mCounts.length; i++) {
+            mCounts[i] = 0;
+        }
+        mTotalCount = 0;
+        mSum = 0;
+        mMax = 0;
+    }
+
+    /**
+     * @return the number of buckets
+     */
+    public int getBucketCount() {
+        return mCounts.length;
+    }
+
+    /**
+     * @param bucket
+     * @return the upper bound (exclusive) of the bucket, Long.MAX_VALUE for the last bucket
+     */
+    public long getBucketUpperBound(int bucket) {
+        if (bucket >= BUCKET_UPPER_BOUNDS_MS.length) {
+            return Long.MAX_VALUE;
+        }
+        return BUCKET_UPPER_BOUNDS_MS[bucket] * 1000000L;
+    }
+
+    /**
+     * @param bucket
+     * @return the amount of latencies recorded in the bucket
+     */
+    public long getCount(int bucket) {
+        return mCounts[bucket];
+    }
+
+    /**
+     * @return the amount of all recorded latencies
+     */
+    public long getTotalCount() {
+        return mTotalCount;
+    }
+
+    /**
+     * @return the mean of all recorded latencies
+     */
+    public long getMean() {
+        return mTotalCount == 0 ? 0 : mSum / mTotalCount;
+    }
+
+    /**
+     * @return the largest recorded latency
+     */
+    public long getMax() {
+        return mMax;
+    }
+
+    /**
+     * @param percentile the percentile to get (0-100)
+     * @return the upper bound of the bucket which contains the given percentile (the largest recorded latency for the last bucket)
+     */
+    public long getPercentile(int percentile) {
+        if (mTotalCount == 0) {
+            return 0;
+        }
+        long rank = (long) Math.ceil(percentile / 100f * mTotalCount);
+        long count = 0;
+        for (int i = 0; i < mCounts.length; i++) {
+            count += mCounts[i];
+            if (count >= rank) {
+                return Math.min(getBucketUpperBound(i), mMax);
+            }
+        }
+        return mMax;
+    }
+
+    private int getBucket(long latency) {
+        final long latencyMs = latency / 1000000L;
+        for (int i = 0; i < BUCKET_UPPER_BOUNDS_MS.length; i++) {
+            if (latencyMs < BUCKET_UPPER_BOUNDS_MS[i]) {
+                return i;
+            }
+        }
+        return BUCKET_UPPER_BOUNDS_MS.length;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("LatencyHistogram{");
+        int lowerBound = 0;
+        for (int i = 0; i < mCounts.length; i++) {
+            if (i < BUCKET_UPPER_BOUNDS_MS.length) {
+                sb.append(lowerBound).append('-').append(BUCKET_UPPER_BOUNDS_MS[i]).append("ms=");
+                lowerBound = BUCKET_UPPER_BOUNDS_MS[i];
+            } else {
+                sb.append(">=").append(lowerBound).append("ms=");
+            }
+            sb.append(mCounts[i]).append(", ");
+        }
+        sb.append("totalCount=").append(mTotalCount)
+                .append(", mean=").append(getMean())
+                .append(", max=").append(mMax)
+                .append('}');
+        return sb.toString();
+    }
+}
@@ -0,0 +1,77 @@
+package com.mikepenz.crossfader.metrics;
+
+/**
+ * Summary of the frame timings of a single slide (drag or crossFade()) of the crossfader.
+ * All durations are in nanoseconds.
+ */
+public class SlideMetrics {
+    private final int mFrameCount;
+    private final int mJankyFrameCount;
+    private final long mFrameTime50;
+    private final long mFrameTime95;
+    private final long mFrameTime99;
+    private final long mTotalDuration;
+
+    public SlideMetrics(int frameCount, int jankyFrameCount, long frameTime50, long frameTime95, long frameTime99, long totalDuration) {
+        this.mFrameCount = frameCount;
+        this.mJankyFrameCount = jankyFrameCount;
+        this.mFrameTime50 = frameTime50;
+        this.mFrameTime95 = frameTime95;
+        this.mFrameTime99 = frameTime99;
+        this.mTotalDuration = totalDuration;
+    }
+
+    /**
+     * @return the amount of frames drawn during the slide
+     */
+    public int getFrameCount() {
+        return mFrameCount;
+    }
+
+    /**
+     * @return the amount of frames which missed at least one vsync
+     */
+    public int getJankyFrameCount() {
+        return mJankyFrameCount;
+    }
+
+    /**
+     * @return the median (p50) frame time
+     */
+    public long getFrameTime50() {
+        return mFrameTime50;
+    }
+
+    /**
+     * @return the p95 frame time
+     */
+    public long getFrameTime95() {
+        return mFrameTime95;
+    }
+
+    /**
+     * @return the p99 frame time
+     */
+    public long getFrameTime99() {
+        return mFrameTime99;
+    }
+
+    /**
+     * @return the duration from the start of the slide until the pane settled
+     */
+    public long getTotalDuration() {
+        return mTotalDuration;
+    }
+
+    @Override
+    public String toString() {
+        return "SlideMetrics{" +
+                "frameCount=" + mFrameCount +
+                ", jankyFrameCount=" + mJankyFrameCount +
+                ", frameTime50=" + mFrameTime50 +
+                ", frameTime95=" + mFrameTime95 +
+                ", frameTime99=" + mFrameTime99 +
+                ", totalDuration=" + mTotalDuration +
+                '}';
+    }
+}
@@ -0,0 +1,13 @@
+package com.mikepenz.crossfader.metrics;
+
+/**
+ * Receives the frame timings of a slide of the crossfader, see Crossfader.withSlideMetricsListener
+ */
+public interface SlideMetricsListener {
+    /**
+     * called once the pane settled (opened or closed) after a drag or crossFade()
+     *
+     * @param slideMetrics the summary of the frames of this slide
+     */
+    void onSlideMetrics(SlideMetrics slideMetrics);
+}
@@ -0,0 +1,124 @@
+package com.mikepenz.crossfader.metrics;
+
+import android.content.Context;
+import android.view.Choreographer;
+import android.view.Display;
+import android.view.WindowManager;
+
+import java.util.Arrays;
+
+/**
+ * Collects the frame durations of a slide with the Choreographer and reports a SlideMetrics summary once it stopped.
+ * The durations are stored in preallocated buffers, so no allocations happen per frame.
+ * Has to be used from the main thread.
+ */
+public class SlideMetricsTracker implements Choreographer.FrameCallback {
+    // the maximum frames kept for the percentiles (~10 seconds at 60Hz), later frames are still counted
+    private static final int MAX_FRAMES = 600;
+    // a frame taking longer than 1.5 frame intervals missed at least one vsync
+    private static final float JANK_THRESHOLD = 1.5f;
+
+    private final SlideMetricsListener mListener;
+    private final long mJankThresholdNanos;
+
+    private final long[] mFrameDurations = new long[MAX_FRAMES];
+    private boolean mRunning = false;
+    private int mFrameCount = 0;
+    private int mJankyFrameCount = 0;
+    private long mStartTime = 0;
+    private long mLastFrameTime = 0;
+
+    public SlideMetricsTracker(Context ctx, SlideMetricsListener listener) {
+        this.mListener = listener;
+
+        float refreshRate = 60f;
+        WindowManager windowManager = (WindowManager) ctx.getSystemService(Context.WINDOW_SERVICE);
+        if (windowManager != null) {
+            Display display = windowManager.getDefaultDisplay();
+            if (display != null && display.getRefreshRate() > 0) {
+                refreshRate = display.getRefreshRate();
+            }
+        }
+        this.mJankThresholdNanos = (long) (JANK_THRESHOLD * 1000000000L / refreshRate);
+    }
+
+    /**
+     * @return true if a slide is currently tracked
+     */
+    public boolean isRunning() {
+        return mRunning;
+    }
+
+    /**
+     * starts to track a new slide, if none is tracked yet
+     */
+    public void start() {
+        if (mRunning) {
+            return;
+        }
+        mRunning = true;
+        mFrameCount = 0;
+        mJankyFrameCount = 0;
+        mLastFrameTime = 0;
+        mStartTime = System.nanoTime();
+        Choreographer.getInstance().postFrameCallback(this);
+    }
+
+    /**
+     * stops tracking the current slide and reports its summary to the listener
+     */
+    public void stop() {
+        if (!mRunning) {
+            return;
+        }
+        long totalDuration = System.nanoTime() - mStartTime;
+        cancel();
+
+        int stored = Math.min(mFrameCount, MAX_FRAMES);
+        Arrays.sort(mFrameDurations, 0, stored);
+        mListener.onSlideMetrics(new SlideMetrics(mFrameCount, mJankyFrameCount, percentile(stored, 50), percentile(stored, 95), percentile(stored, 99), totalDuration));
+    }
+
+    /**
+     * stops tracking the current slide without reporting it
+     */
+    public void cancel() {
+        if (!mRunning) {
+            return;
+        }
+        mRunning = false;
+        Choreographer.getInstance().removeFrameCallback(this);
+    }
+
+    @Override
+    public void doFrame(long frameTimeNanos) {
+        if (!mRunning) {
+            return;
+        }
+        if (mLastFrameTime != 0) {
+            long duration = frameTimeNanos - mLastFrameTime;
+            if (mFrameCount < MAX_FRAMES) {
+                mFrameDurations[mFrameCount] = duration;
+            }
+            mFrameCount++;
+            if (duration > mJankThresholdNanos) {
+                mJankyFrameCount++;
+            }
+        }
+        mLastFrameTime = frameTimeNanos;
+        Choreographer.getInstance().postFrameCallback(this);
+    }
+
+    /**
+     * @param stored     the amount of sorted durations in the buffer
+     * @param percentile the percentile to get (0-100)
+     * @return the frame duration at the given percentile
+     */
+    private long percentile(int stored, int percentile) {
+        if (stored == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile / 100f * stored) - 1;
+        return mFrameDurations[Math.max(0, Math.min(index, stored - 1))];
+    }
+}
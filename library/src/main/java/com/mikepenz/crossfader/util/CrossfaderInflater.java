@@ -0,0 +1,215 @@
+package com.mikepenz.crossfader.util;
+
+import android.content.Context;
+import android.os.Handler;
+import android.os.HandlerThread;
+import android.os.Looper;
+import androidx.annotation.LayoutRes;
+import android.util.AttributeSet;
+import android.util.Log;
+import android.util.SparseArray;
+import android.view.LayoutInflater;
+import android.view.View;
+
+import java.util.ArrayList;
+
+/**
+ * Inflates the base layouts of the crossfader on a background thread and keeps a pool of prewarmed layouts.
+ * The pool and all callbacks are only accessed from the main thread. The background thread is started for the first
+ * request and quit again once all requests are done.
+ */
+public class CrossfaderInflater {
+    private static final String TAG = "CrossfaderInflater";
+
+    /**
+     * called on the main thread once the layout was inflated
+     */
+    public interface OnInflateFinishedListener {
+        void onInflateFinished(View view);
+    }
+
+    /**
+     * a pending inflation, which can be canceled until it is delivered
+     */
+    public static class InflateRequest {
+        private volatile boolean mCanceled = false;
+
+        /**
+         * the listener of a canceled request is not called anymore
+         * has to be called from the main thread
+         */
+        public void cancel() {
+            mCanceled = true;
+        }
+
+        public boolean isCanceled() {
+            return mCanceled;
+        }
+    }
+
+    private static final Object sLock = new Object();
+    private static HandlerThread sThread;
+    private static Handler sHandler;
+    private static int sPendingRequests = 0;
+    private static final Handler sMainHandler = new Handler(Looper.getMainLooper());
+    private static final SparseArray<ArrayList<View>> sPool = new SparseArray<>();
+
+    private CrossfaderInflater() {
+    }
+
+    /**
+     * inflates the layout on the background thread and delivers it on the main thread
+     * the layout is inflated without a parent, so the layout params of its root are not set.
+     * the inflater has no factories (e.g. the one of AppCompat), as they are not thread safe. if the inflation fails on
+     * the background thread the layout is inflated on the main thread instead
+     *
+     * @param ctx
+     * @param layout
+     * @param listener
+     * @return the request, to cancel it
+     */
+    public static InflateRequest inflate(final Context ctx, @LayoutRes final int layout, final OnInflateFinishedListener listener) {
+        final InflateRequest request = new InflateRequest();
+        final LayoutInflater inflater = new BasicInflater(ctx);
+        acquireHandler().post(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    if (request.isCanceled()) {
+                        return;
+                    }
+                    View view = null;
+                    try {
+                        view = inflater.inflate(layout, null, false);
+                    } catch (RuntimeException ex) {
+                        Log.w(TAG, "Failed to inflate the layout in the background, retrying on the main thread", ex);
+                    }
+                    final View inflated = view;
+                    sMainHandler.post(new Runnable() {
+                        @Override
+                        public void run() {
+                            if (request.isCanceled()) {
+                                return;
+                            }
+                            View view = inflated;
+                            if (view == null) {
+                                view = LayoutInflater.from(ctx).inflate(layout, null, false);
+                            }
+                            listener.onInflateFinished(view);
+                        }
+                    });
+                } finally {
+                    releaseHandler();
+                }
+            }
+        });
+        return request;
+    }
+
+    /**
+     * inflates the layout count times on the background thread and keeps them in the pool, until they are obtained.
+     * the pool outlives the activities, so the layouts are always inflated with the application context (and the theme
+     * of the application), even if an activity is passed
+     *
+     * @param ctx
+     * @param layout
+     * @param count
+     */
+    public static void prewarm(Context ctx, @LayoutRes final int layout, int count) {
+        Context appContext = ctx.getApplicationContext();
+        for (int i = 0; i < count; i++) {
+            inflate(appContext, layout, new OnInflateFinishedListener() {
+                @Override
+                public void onInflateFinished(View view) {
+                    ArrayList<View> views = sPool.get(layout);
+                    if (views == null) {
+                        views = new ArrayList<>();
+                        sPool.put(layout, views);
+                    }
+                    views.add(view);
+                }
+            });
+        }
+    }
+
+    /**
+     * has to be called from the main thread
+     *
+     * @param layout
+     * @return a prewarmed layout (removed from the pool) or null if none is available
+     */
+    public static View obtain(@LayoutRes int layout) {
+        ArrayList<View> views = sPool.get(layout);
+        if (views == null || views.isEmpty()) {
+            return null;
+        }
+        return views.remove(views.size() - 1);
+    }
+
+    /**
+     * removes all prewarmed layouts from the pool
+     * has to be called from the main thread
+     */
+    public static void clear() {
+        sPool.clear();
+    }
+
+    private static Handler acquireHandler() {
+        synchronized (sLock) {
+            if (sHandler == null) {
+                sThread = new HandlerThread(TAG);
+                sThread.start();
+                sHandler = new Handler(sThread.getLooper());
+            }
+            sPendingRequests++;
+            return sHandler;
+        }
+    }
+
+    private static void releaseHandler() {
+        synchronized (sLock) {
+            sPendingRequests--;
+            if (sPendingRequests == 0) {
+                //no request is left, a new thread is started for the next one
+                sThread.quit();
+                sThread = null;
+                sHandler = null;
+            }
+        }
+    }
+
+    /**
+     * a LayoutInflater without factories, the same as the one of the AsyncLayoutInflater
+     */
+    private static class BasicInflater extends LayoutInflater {
+        private static final String[] sClassPrefixList = {
+                "android.widget.",
+                "android.webkit.",
+                "android.app."
+        };
+
+        BasicInflater(Context context) {
+            super(context);
+        }
+
+        @Override
+        public LayoutInflater cloneInContext(Context newContext) {
+            return new BasicInflater(newContext);
+        }
+
+        @Override
+        protected View onCreateView(String name, AttributeSet attrs) throws ClassNotFoundException {
+            for (String prefix : sClassPrefixList) {
+                try {
+                    View view = createView(name, prefix, attrs);
+                    if (view != null) {
+                        return view;
+                    }
+                } catch (ClassNotFoundException e) {
+                    //in this case we want to let the base class take a crack at it
+                }
+            }
+            return super.onCreateView(name, attrs);
+        }
+    }
+}
@@ -0,0 +1,228 @@
+package com.mikepenz.crossfader.util;
+
+import android.os.Handler;
+import android.os.Looper;
+import androidx.slidingpanelayout.widget.SlidingPaneLayout;
+import android.view.Choreographer;
+import android.view.View;
+
+import com.mikepenz.crossfader.view.CrossfadeLayout;
+
+/**
+ * Wraps a PanelSlideListener which does expensive work for every offset (analytics, recoloring, padding updates, ...)
+ * and delivers the slide offsets according to a policy: at most once per frame, at most with a given rate,
+ * only if the offset crosses a quantization step or only once the pane settled.
+ * Intermediate offsets are conflated, the listener always receives the latest one and the final offset before
+ * onPanelOpened / onPanelClosed, or before the content settles at an intermediate stage of the CrossfadeLayout.
+ * Has to be used from the main thread.
+ */
+public class ThrottledPanelSlideListener implements SlidingPaneLayout.PanelSlideListener, CrossfadeLayout.OnStageSettledListener {
+    /**
+     * deliver the latest offset at most once per frame (vsync)
+     */
+    public static final int POLICY_FRAME = 0;
+    /**
+     * deliver the latest offset at most with the given rate
+     */
+    public static final int POLICY_RATE = 1;
+    /**
+     * deliver the offset only if it crosses one of the quantization steps
+     */
+    public static final int POLICY_QUANTIZED = 2;
+    /**
+     * deliver no intermediate offsets, only the final offset once the pane settled
+     */
+    public static final int POLICY_SETTLE = 3;
+
+    private final SlidingPaneLayout.PanelSlideListener mListener;
+    private final int mPolicy;
+    private final long mIntervalNanos;
+    private final int mSteps;
+
+    private final Handler mHandler = new Handler(Looper.getMainLooper());
+
+    // the latest offset which was not delivered yet
+    private boolean mPending = false;
+    private View mPendingPanel;
+    private float mPendingOffset;
+    private boolean mScheduled = false;
+
+    private float mDeliveredOffset = -1;
+    private long mDeliveredNanos = 0;
+    private int mDeliveredStep = -1;
+
+    /**
+     * @param listener the listener to deliver to
+     * @return a listener which receives the latest offset at most once per frame
+     */
+    public static ThrottledPanelSlideListener perFrame(SlidingPaneLayout.PanelSlideListener listener) {
+        return new ThrottledPanelSlideListener(listener, POLICY_FRAME, 0, 0);
+    }
+
+    /**
+     * @param listener the listener to deliver to
+     * @param maxRate  the maximum number of deliveries per second
+     * @return a listener which receives the latest offset at most maxRate times per second
+     */
+    public static ThrottledPanelSlideListener maxRate(SlidingPaneLayout.PanelSlideListener listener, int maxRate) {
+        return new ThrottledPanelSlideListener(listener, POLICY_RATE, 1000000000L / Math.max(1, maxRate), 0);
+    }
+
+    /**
+     * @param listener the listener to deliver to
+     * @param steps    the number of steps the offset (0 - 1) is divided into, e.g. 10 delivers at 0, 0.1, 0.2, ...
+     * @return a listener which receives the offset only if it crosses a step
+     */
+    public static ThrottledPanelSlideListener quantized(SlidingPaneLayout.PanelSlideListener listener, int steps) {
+        return new ThrottledPanelSlideListener(listener, POLICY_QUANTIZED, 0, Math.max(1, steps));
+    }
+
+    /**
+     * @param listener the listener to deliver to
+     * @return a listener which receives only the final offset once the pane settled
+     */
+    public static ThrottledPanelSlideListener onSettle(SlidingPaneLayout.PanelSlideListener listener) {
+        return new ThrottledPanelSlideListener(listener, POLICY_SETTLE, 0, 0);
+    }
+
+    private ThrottledPanelSlideListener(SlidingPaneLayout.PanelSlideListener listener, int policy, long intervalNanos, int steps) {
+        this.mListener = listener;
+        this.mPolicy = policy;
+        this.mIntervalNanos = intervalNanos;
+        this.mSteps = steps;
+    }
+
+    /**
+     * @return the policy, one of POLICY_FRAME, POLICY_RATE, POLICY_QUANTIZED or POLICY_SETTLE
+     */
+    public int getPolicy() {
+        return mPolicy;
+    }
+
+    /**
+     * drops the offset which was not delivered yet, call this after the listener was removed
+     */
+    public void cancel() {
+        mPending = false;
+        mPendingPanel = null;
+        unschedule();
+    }
+
+    @Override
+    public void onPanelSlide(View panel, float slideOffset) {
+        switch (mPolicy) {
+            case POLICY_FRAME:
+                setPending(panel, slideOffset);
+                if (!mScheduled) {
+                    mScheduled = true;
+                    Choreographer.getInstance().postFrameCallback(mFrameCallback);
+                }
+                break;
+            case POLICY_RATE:
+                setPending(panel, slideOffset);
+                if (!mScheduled) {
+                    long remaining = mIntervalNanos - (System.nanoTime() - mDeliveredNanos);
+                    if (remaining <= 0) {
+                        deliverPending();
+                    } else {
+                        mScheduled = true;
+                        mHandler.postDelayed(mDeliverRunnable, remaining / 1000000L + 1);
+                    }
+                }
+                break;
+            case POLICY_QUANTIZED:
+                int step = (int) (slideOffset * mSteps);
+                if (step != mDeliveredStep) {
+                    mDeliveredStep = step;
+                    deliver(panel, slideOffset);
+                }
+                break;
+            default:
+                //POLICY_SETTLE, only the final offset is delivered
+                break;
+        }
+    }
+
+    @Override
+    public void onPanelOpened(View panel) {
+        settle(panel, 1);
+        mListener.onPanelOpened(panel);
+    }
+
+    @Override
+    public void onPanelClosed(View panel) {
+        settle(panel, 0);
+        mListener.onPanelClosed(panel);
+    }
+
+    @Override
+    public void onStageSettled(View panel, int stage, float slideOffset) {
+        settle(panel, slideOffset);
+        if (mListener instanceof CrossfadeLayout.OnStageSettledListener) {
+            ((CrossfadeLayout.OnStageSettledListener) mListener).onStageSettled(panel, stage, slideOffset);
+        }
+    }
+
+    /**
+     * helper method to drop the conflated offsets and deliver the final offset, if it was not delivered yet
+     *
+     * @param panel
+     * @param slideOffset
+     */
+    private void settle(View panel, float slideOffset) {
+        cancel();
+        mDeliveredStep = (int) (slideOffset * mSteps);
+        if (mDeliveredOffset != slideOffset) {
+            deliver(panel, slideOffset);
+        }
+    }
+
+    private void setPending(View panel, float slideOffset) {
+        mPending = true;
+        mPendingPanel = panel;
+        mPendingOffset = slideOffset;
+    }
+
+    private void deliverPending() {
+        mScheduled = false;
+        if (!mPending) {
+            return;
+        }
+        mPending = false;
+        View panel = mPendingPanel;
+        mPendingPanel = null;
+        deliver(panel, mPendingOffset);
+    }
+
+    private void deliver(View panel, float slideOffset) {
+        mDeliveredOffset = slideOffset;
+        mDeliveredNanos = System.nanoTime();
+        mListener.onPanelSlide(panel, slideOffset);
+    }
+
+    private void unschedule() {
+        if (!mScheduled) {
+            return;
+        }
+        mScheduled = false;
+        if (mPolicy == POLICY_FRAME) {
+            Choreographer.getInstance().removeFrameCallback(mFrameCallback);
+        } else {
+            mHandler.removeCallbacks(mDeliverRunnable);
+        }
+    }
+
+    private final Choreographer.FrameCallback mFrameCallback = new Choreographer.FrameCallback() {
+        @Override
+        public void doFrame(long frameTimeNanos) {
+            deliverPending();
+        }
+    };
+
+    private final Runnable mDeliverRunnable = new Runnable() {
+        @Override
+        public void run() {
+            deliverPending();
+        }
+    };
+}
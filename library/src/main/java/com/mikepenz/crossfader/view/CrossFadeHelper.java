@@ -0,0 +1,707 @@
+package com.mikepenz.crossfader.view;
+
+import android.content.Context;
+import android.graphics.Canvas;
+import android.os.Build;
+import androidx.core.view.ViewCompat;
+import android.view.MotionEvent;
+import android.view.ViewConfiguration;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.FrameLayout;
+import android.widget.LinearLayout;
+
+import com.mikepenz.crossfader.R;
+
+import static com.mikepenz.crossfader.view.ICrossFadeSlidingPaneLayout.STATE_CLOSED;
+import static com.mikepenz.crossfader.view.ICrossFadeSlidingPaneLayout.STATE_OPENED;
+import static com.mikepenz.crossfader.view.ICrossFadeSlidingPaneLayout.STATE_SLIDING;
+
+/**
+ * Applies the crossfade between the fullView (first) and the partialView (second) of a crossfader layout.
+ * Shared by the CrossFadeSlidingPaneLayout and the CrossfadeLayout, which only have to forward their slide events.
+ * If the panel contains intermediate stages (more than two children) only the two stages adjacent to the current
+ * offset are crossfaded as partialView and fullView, all other stages are GONE.
+ */
+class CrossFadeHelper {
+    private ViewGroup mLayout = null;
+    private View partialView = null;
+    private View fullView = null;
+
+    // if enabled both panels are promoted to hardware layers while the pane slides
+    private boolean mHardwareLayerDuringSlide = false;
+    private boolean mLayersPromoted = false;
+
+    // the state and offset which were applied to the views last (-1 as nothing was applied yet)
+    private int mState = -1;
+    private float mOffset = -1;
+    // the number of layout requests since the current (or last) slide started
+    private int mSlideLayoutRequestCount = 0;
+    // true if the hidden panel was restored for a slide which did not start yet
+    private boolean mSlidePrepared = false;
+    // if enabled a touch down (or a hover within the hint region) also lays out and records the hidden panel
+    private boolean mPrewarmOnTouch = false;
+    private boolean mSlidePrewarmed = false;
+    private PanelSnapshot mPrewarmSnapshot = null;
+    // the touch slop of the layout and the position of the current touch down, a touch which moves horizontally
+    // beyond the slop may start a drag
+    private int mTouchSlop = 0;
+    private float mInitialMotionX;
+    private float mInitialMotionY;
+    // notified once a slide is prepared
+    private OnPrepareSlideListener mOnPrepareSlideListener = null;
+
+    // all panels ordered from the narrowest (second) to the widest (first), null if there are no intermediate stages
+    private View[] mStages = null;
+    // the offset at which each stage is fully shown
+    private float[] mStageOffsets = null;
+    // the index of the narrower stage of the pair which is currently crossfaded
+    private int mStagePair = 0;
+
+    // if enabled the partialView and fullView are replaced by snapshots while the pane slides
+    private boolean mSnapshotDuringSlide = false;
+    private boolean mSnapshotActive = false;
+    private PanelSnapshot mPartialSnapshot = null;
+    private PanelSnapshot mFullSnapshot = null;
+    // the crossfade between the partialView (0) and the fullView (1)
+    private float mCrossFadeOffset = 0;
+
+    /**
+     * creates the panel (with the first and second container) and the content container in code, with their final
+     * LayoutParams. This is the inflation free alternative to the crossfader_base layout.
+     *
+     * @param layout
+     * @param firstWidth
+     * @param secondWidth
+     */
+    static void createContainers(ViewGroup layout, int firstWidth, int secondWidth) {
+        if (layout.getChildCount() > 0) {
+            throw new RuntimeException("the containers can only be created within an empty crossfader layout");
+        }
+        Context ctx = layout.getContext();
+
+        FrameLayout panel = new FrameLayout(ctx);
+        panel.setId(R.id.panel);
+
+        LinearLayout first = new LinearLayout(ctx);
+        first.setId(R.id.first);
+        first.setOrientation(LinearLayout.VERTICAL);
+        panel.addView(first, new FrameLayout.LayoutParams(firstWidth, ViewGroup.LayoutParams.MATCH_PARENT));
+
+        LinearLayout second = new LinearLayout(ctx);
+        second.setId(R.id.second);
+        second.setOrientation(LinearLayout.VERTICAL);
+        second.setVisibility(View.GONE);
+        panel.addView(second, new FrameLayout.LayoutParams(secondWidth, ViewGroup.LayoutParams.MATCH_PARENT));
+
+        layout.addView(panel, new ViewGroup.MarginLayoutParams(firstWidth, ViewGroup.LayoutParams.MATCH_PARENT));
+
+        LinearLayout content = new LinearLayout(ctx);
+        content.setId(R.id.content);
+        content.setOrientation(LinearLayout.VERTICAL);
+        ViewGroup.MarginLayoutParams contentLp = new ViewGroup.MarginLayoutParams(ViewGroup.LayoutParams.MATCH_PARENT, ViewGroup.LayoutParams.MATCH_PARENT);
+        contentLp.leftMargin = secondWidth;
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN_MR1) {
+            contentLp.setMarginStart(secondWidth);
+        }
+        layout.addView(content, contentLp);
+    }
+
+    /**
+     * finds the fullView and partialView within the panel (the first child) of the given layout
+     *
+     * @param layout
+     * @return true if both views were found
+     */
+    boolean attach(ViewGroup layout) {
+        if (layout.getChildCount() < 1) {
+            return false;
+        }
+
+        View panel = layout.getChildAt(0);
+        if (!(panel instanceof ViewGroup)) {
+            return false;
+        }
+
+        ViewGroup viewGroup = (ViewGroup) panel;
+        final int count = viewGroup.getChildCount();
+        if (count < 2) {
+            return false;
+        }
+        mLayout = layout;
+        mTouchSlop = ViewConfiguration.get(layout.getContext()).getScaledTouchSlop();
+
+        //the layout may be attached again after stages were added
+        releaseLayers();
+        releaseSnapshots();
+        mState = -1;
+        mOffset = -1;
+
+        fullView = viewGroup.getChildAt(0);
+        partialView = viewGroup.getChildAt(1);
+
+        if (count > 2) {
+            //the intermediate stages are added after the first and second view
+            mStages = new View[count];
+            mStages[0] = partialView;
+            for (int i = 2; i < count; i++) {
+                mStages[i - 1] = viewGroup.getChildAt(i);
+            }
+            mStages[count - 1] = fullView;
+            mStageOffsets = new float[count];
+            updateStageOffsets();
+
+            //we start with the two narrowest stages, all others are taken out of measure, layout and draw
+            mStagePair = 0;
+            fullView = mStages[1];
+            for (int i = 2; i < count; i++) {
+                mStages[i].setVisibility(View.GONE);
+            }
+        } else {
+            mStages = null;
+            mStageOffsets = null;
+        }
+
+        //make sure we prevent click on the fullView when we create the crossfader
+        //we start closed, the layout will correct this if the pane is opened
+        applyState(STATE_CLOSED);
+        return true;
+    }
+
+    /**
+     * @return true if the fullView and partialView were found
+     */
+    boolean isAttached() {
+        return partialView != null && fullView != null;
+    }
+
+    /**
+     * called for every frame of a slide
+     *
+     * @param slideOffset
+     */
+    void onPanelSlide(float slideOffset) {
+        if (!isAttached()) {
+            return;
+        }
+        promoteLayers();
+        setOffset(slideOffset);
+    }
+
+    /**
+     * called right before a programmatic slide starts
+     */
+    void onSlideStarting() {
+        prepareSlide();
+        promoteLayers();
+    }
+
+    /**
+     * called once the pane was opened or closed
+     */
+    void onPanelSettled() {
+        releaseLayers();
+        cancelPreparedSlide();
+    }
+
+    /**
+     * called for every touch event the crossfader layout intercepts or handles. only a touch which can really start
+     * a drag restores the hidden panel before the first frame of the drag: a touch down within the drag region or a
+     * touch which moves horizontally beyond the touch slop. taps and scrolls within the content leave it GONE
+     *
+     * @param ev
+     * @param inDragRegion true if the touch is within the region a drag starts from (e.g. the panel or the drag regions)
+     */
+    void onTouchEvent(MotionEvent ev, boolean inDragRegion) {
+        final int action = ev.getActionMasked();
+        if (action == MotionEvent.ACTION_DOWN) {
+            mInitialMotionX = ev.getX();
+            mInitialMotionY = ev.getY();
+            if (inDragRegion) {
+                prepareSlide();
+                if (mPrewarmOnTouch) {
+                    prewarmSlide();
+                }
+            }
+        } else if (action == MotionEvent.ACTION_MOVE && !mSlidePrepared) {
+            final float adx = Math.abs(ev.getX() - mInitialMotionX);
+            final float ady = Math.abs(ev.getY() - mInitialMotionY);
+            if (adx > mTouchSlop && adx > ady) {
+                prepareSlide();
+            }
+        }
+    }
+
+    /**
+     * called for every touch event the crossfader layout dispatched. the up or cancel of a gesture does not reach
+     * onInterceptTouchEvent if a child disallowed it, so a slide which did not start is released here
+     *
+     * @param ev
+     */
+    void onTouchEventDispatched(MotionEvent ev) {
+        final int action = ev.getActionMasked();
+        if (action == MotionEvent.ACTION_UP || action == MotionEvent.ACTION_CANCEL) {
+            cancelPreparedSlide();
+        }
+    }
+
+    /**
+     * called for every hover event the crossfader layout receives, a pointer which hovers within the hint region
+     * (e.g. the panel or an edge) is likely to start a drag, so the hidden panel is prewarmed (if enabled)
+     *
+     * @param ev
+     * @param inHintRegion true if the pointer is within the region a drag is likely to start from
+     */
+    void onHoverEvent(MotionEvent ev, boolean inHintRegion) {
+        if (!mPrewarmOnTouch) {
+            return;
+        }
+        final int action = ev.getActionMasked();
+        if (inHintRegion && (action == MotionEvent.ACTION_HOVER_ENTER || action == MotionEvent.ACTION_HOVER_MOVE)) {
+            prepareSlide();
+            prewarmSlide();
+        } else if (mSlidePrewarmed) {
+            cancelPreparedSlide();
+        }
+    }
+
+    void setPrewarmOnTouch(boolean prewarmOnTouch) {
+        this.mPrewarmOnTouch = prewarmOnTouch;
+    }
+
+    void setOnPrepareSlideListener(OnPrepareSlideListener onPrepareSlideListener) {
+        this.mOnPrepareSlideListener = onPrepareSlideListener;
+    }
+
+    /**
+     * the hidden panel is GONE at rest. it is made INVISIBLE (still not drawn) before a slide starts, so it is
+     * measured and laid out with the next frame instead of the first frame of the slide
+     */
+    private void prepareSlide() {
+        if (!isAttached() || mSlidePrepared || mState == STATE_SLIDING || mState < 0) {
+            return;
+        }
+        mSlidePrepared = true;
+
+        //the views of the slide may be created lazily, before the hidden panel is restored
+        if (mOnPrepareSlideListener != null) {
+            mOnPrepareSlideListener.onPrepareSlide();
+        }
+
+        View hiddenView = mState == STATE_OPENED ? partialView : fullView;
+        if (hiddenView.getVisibility() == View.GONE) {
+            hiddenView.setVisibility(View.INVISIBLE);
+        }
+    }
+
+    /**
+     * does the work of the first frame of a slide for the prepared hidden panel right away, before the drag is captured:
+     * the hidden panel is measured and laid out with the size of the panel, the display lists of its children are
+     * recorded (API 29+) and its hardware layer is built (if hardware layers are used while the pane slides)
+     */
+    private void prewarmSlide() {
+        if (!mSlidePrepared || mSlidePrewarmed) {
+            return;
+        }
+        mSlidePrewarmed = true;
+
+        View hiddenView = mState == STATE_OPENED ? partialView : fullView;
+        ViewGroup panel = (ViewGroup) hiddenView.getParent();
+        if (panel == null || panel.getWidth() <= 0 || panel.getHeight() <= 0) {
+            //the panel was not laid out yet, there is nothing to prewarm
+            return;
+        }
+
+        //the same specs the panel measures the view with, so the next layout pass does not measure it again
+        if (hiddenView.isLayoutRequested() || hiddenView.getWidth() <= 0) {
+            ViewGroup.MarginLayoutParams lp = (ViewGroup.MarginLayoutParams) hiddenView.getLayoutParams();
+            int widthMeasureSpec = ViewGroup.getChildMeasureSpec(View.MeasureSpec.makeMeasureSpec(panel.getWidth(), View.MeasureSpec.EXACTLY),
+                    panel.getPaddingLeft() + panel.getPaddingRight() + lp.leftMargin + lp.rightMargin, lp.width);
+            int heightMeasureSpec = ViewGroup.getChildMeasureSpec(View.MeasureSpec.makeMeasureSpec(panel.getHeight(), View.MeasureSpec.EXACTLY),
+                    panel.getPaddingTop() + panel.getPaddingBottom() + lp.topMargin + lp.bottomMargin, lp.height);
+            hiddenView.measure(widthMeasureSpec, heightMeasureSpec);
+
+            //the panel aligns its children to the start, the right for RTL
+            int left = panel.getPaddingLeft() + lp.leftMargin;
+            if (ViewCompat.getLayoutDirection(panel) == ViewCompat.LAYOUT_DIRECTION_RTL) {
+                left = panel.getWidth() - panel.getPaddingRight() - lp.rightMargin - hiddenView.getMeasuredWidth();
+            }
+            int top = panel.getPaddingTop() + lp.topMargin;
+            hiddenView.layout(left, top, left + hiddenView.getMeasuredWidth(), top + hiddenView.getMeasuredHeight());
+        }
+
+        if (mHardwareLayerDuringSlide && !mSnapshotDuringSlide) {
+            //the layers of the slide are promoted now, buildLayer also records the display lists
+            promoteLayers();
+            if (ViewCompat.isAttachedToWindow(hiddenView)) {
+                hiddenView.buildLayer();
+            }
+        } else {
+            //the drawing is discarded, but the display lists of the children stay recorded
+            if (mPrewarmSnapshot == null) {
+                mPrewarmSnapshot = new PanelSnapshot();
+            }
+            mPrewarmSnapshot.prerecord(hiddenView);
+        }
+    }
+
+    /**
+     * the slide did not start (e.g. it was only a tap), take the hidden panel out of measure, layout and draw again
+     */
+    private void cancelPreparedSlide() {
+        if (!mSlidePrepared) {
+            return;
+        }
+        mSlidePrepared = false;
+        if (mSlidePrewarmed) {
+            mSlidePrewarmed = false;
+            releaseLayers();
+        }
+        if (mState >= 0) {
+            applyVisibility(mState);
+        }
+    }
+
+    /**
+     * called after every layout pass of the crossfader layout
+     *
+     * @param open
+     */
+    void onLayout(boolean open) {
+        if (mStages != null) {
+            //the stages follow the offset, we only have to apply it again if the widths of the stages changed
+            if (updateStageOffsets() && mOffset >= 0) {
+                float offset = mOffset;
+                mOffset = -1;
+                setOffset(offset);
+            }
+            return;
+        }
+        if (isAttached() && mState != STATE_SLIDING) {
+            applyState(open ? STATE_OPENED : STATE_CLOSED);
+        }
+    }
+
+    /**
+     * called for every layout request of the crossfader layout
+     */
+    void onRequestLayout() {
+        if (mState == STATE_SLIDING) {
+            mSlideLayoutRequestCount++;
+        }
+    }
+
+    /**
+     * with intermediate stages the pane is STATE_SLIDING as long as it is not fully closed or opened
+     *
+     * @return
+     */
+    int getState() {
+        if (mStages != null && mOffset >= 0) {
+            return mOffset == 0 ? STATE_CLOSED : mOffset == 1 ? STATE_OPENED : STATE_SLIDING;
+        }
+        return mState;
+    }
+
+    /**
+     * @return the number of stages, 2 if there are no intermediate stages
+     */
+    int getStageCount() {
+        return mStages == null ? 2 : mStages.length;
+    }
+
+    /**
+     * @param stage
+     * @return the offset at which the given stage is fully shown
+     */
+    float getStageOffset(int stage) {
+        if (mStages == null) {
+            return stage == 0 ? 0 : 1;
+        }
+        return mStageOffsets[stage];
+    }
+
+    int getSlideLayoutRequestCount() {
+        return mSlideLayoutRequestCount;
+    }
+
+    /**
+     * called once the crossfader layout was detached from the window, the snapshots are dropped
+     */
+    void onDetachedFromWindow() {
+        releaseSnapshots();
+        if (mPartialSnapshot != null) {
+            mPartialSnapshot.recycle();
+            mFullSnapshot.recycle();
+        }
+    }
+
+    /**
+     * draws the snapshots of the partialView and fullView (at their position within the panel) while the pane slides,
+     * has to be called by the crossfader layout after the panel was drawn
+     *
+     * @param canvas
+     * @param panel
+     */
+    void drawSnapshots(Canvas canvas, View panel) {
+        if (!mSnapshotActive) {
+            return;
+        }
+        mFullSnapshot.draw(canvas, fullView, panel.getLeft() + fullView.getLeft(), panel.getTop() + fullView.getTop(), mCrossFadeOffset);
+        mPartialSnapshot.draw(canvas, partialView, panel.getLeft() + partialView.getLeft(), panel.getTop() + partialView.getTop(), 1 - mCrossFadeOffset);
+    }
+
+    void setSnapshotDuringSlide(boolean snapshotDuringSlide) {
+        this.mSnapshotDuringSlide = snapshotDuringSlide;
+        if (!snapshotDuringSlide && mPartialSnapshot != null) {
+            releaseSnapshots();
+            mPartialSnapshot.recycle();
+            mFullSnapshot.recycle();
+            mPartialSnapshot = null;
+            mFullSnapshot = null;
+        }
+    }
+
+    void setHardwareLayerDuringSlide(boolean hardwareLayerDuringSlide) {
+        this.mHardwareLayerDuringSlide = hardwareLayerDuringSlide;
+        if (!hardwareLayerDuringSlide) {
+            releaseLayers();
+        }
+    }
+
+    /**
+     * helper method to move both panels into hardware layers at the start of a slide
+     */
+    private void promoteLayers() {
+        //the snapshots replace the layers
+        if (!mHardwareLayerDuringSlide || mSnapshotDuringSlide || mLayersPromoted || !isAttached()) {
+            return;
+        }
+        mLayersPromoted = true;
+        partialView.setLayerType(View.LAYER_TYPE_HARDWARE, null);
+        fullView.setLayerType(View.LAYER_TYPE_HARDWARE, null);
+    }
+
+    /**
+     * helper method to drop the hardware layers again once the pane settled
+     */
+    private void releaseLayers() {
+        if (!mLayersPromoted) {
+            return;
+        }
+        mLayersPromoted = false;
+        partialView.setLayerType(View.LAYER_TYPE_NONE, null);
+        fullView.setLayerType(View.LAYER_TYPE_NONE, null);
+    }
+
+    void setOffset(float slideOffset) {
+        if (!isAttached() || mOffset == slideOffset) {
+            return;
+        }
+        mOffset = slideOffset;
+
+        if (mStages != null) {
+            //crossfade the two stages adjacent to the offset
+            slideOffset = selectStagePair(slideOffset);
+        }
+        mCrossFadeOffset = slideOffset;
+
+        partialView.setAlpha(1 - slideOffset);
+        fullView.setAlpha(slideOffset);
+        if (mSnapshotActive) {
+            //the snapshots are drawn by the crossfader layout
+            mLayout.invalidate();
+        }
+
+        if (slideOffset == 0) {
+            applyState(STATE_CLOSED);
+        } else if (slideOffset == 1) {
+            applyState(STATE_OPENED);
+        } else {
+            applyState(STATE_SLIDING);
+        }
+    }
+
+    /**
+     * helper method to select the pair of stages which is crossfaded at the given offset, the stages which are no
+     * longer part of the pair are GONE
+     *
+     * @param slideOffset
+     * @return the offset between the two stages of the pair
+     */
+    private float selectStagePair(float slideOffset) {
+        int pair = mStagePair;
+        //keep the current pair as long as the offset is within it, so resting on a stage does not switch the pair
+        if (slideOffset < mStageOffsets[pair] || slideOffset > mStageOffsets[pair + 1]) {
+            pair = 0;
+            while (pair < mStages.length - 2 && slideOffset > mStageOffsets[pair + 1]) {
+                pair++;
+            }
+        }
+
+        if (pair != mStagePair) {
+            boolean layersPromoted = mLayersPromoted;
+            releaseLayers();
+
+            View oldPartialView = partialView;
+            View oldFullView = fullView;
+            mStagePair = pair;
+            partialView = mStages[pair];
+            fullView = mStages[pair + 1];
+
+            if (oldPartialView != partialView && oldPartialView != fullView) {
+                oldPartialView.setVisibility(View.GONE);
+            }
+            if (oldFullView != partialView && oldFullView != fullView) {
+                oldFullView.setVisibility(View.GONE);
+            }
+            if (layersPromoted) {
+                promoteLayers();
+            }
+            if (mSnapshotActive) {
+                //the pair changed within the slide, capture the new pair
+                releaseSnapshots();
+                captureSnapshots();
+            }
+
+            //the new pair has to get the visibilities of the current state
+            if (mState >= 0) {
+                applyVisibility(mState);
+            }
+        }
+
+        final float start = mStageOffsets[pair];
+        final float range = mStageOffsets[pair + 1] - start;
+        return range <= 0 ? 1 : Math.max(0, Math.min(1, (slideOffset - start) / range));
+    }
+
+    /**
+     * helper method to calculate the offset of every stage from the widths of their LayoutParams
+     *
+     * @return true if an offset changed
+     */
+    private boolean updateStageOffsets() {
+        final int count = mStages.length;
+        final int closedWidth = mStages[0].getLayoutParams().width;
+        final int range = mStages[count - 1].getLayoutParams().width - closedWidth;
+
+        boolean changed = false;
+        for (int i = 0; i < count; i++) {
+            float offset;
+            if (range <= 0) {
+                //the widths are not defined yet, spread the stages evenly
+                offset = i / (float) (count - 1);
+            } else {
+                offset = Math.max(0, Math.min(1, (mStages[i].getLayoutParams().width - closedWidth) / (float) range));
+            }
+            if (mStageOffsets[i] != offset) {
+                mStageOffsets[i] = offset;
+                changed = true;
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * helper method to update the visibility and interaction of the views, only if the state really changed
+     *
+     * @param state
+     */
+    private void applyState(int state) {
+        if (mState == state) {
+            return;
+        }
+        if (state == STATE_SLIDING) {
+            //a new slide starts
+            mSlideLayoutRequestCount = 0;
+        }
+        mState = state;
+        mSlidePrepared = false;
+        mSlidePrewarmed = false;
+
+        if (state == STATE_SLIDING) {
+            captureSnapshots();
+        } else {
+            releaseSnapshots();
+        }
+        applyVisibility(state);
+    }
+
+    /**
+     * helper method to record the partialView and fullView once at the start of a slide, if enabled.
+     * if a view was not laid out yet the live views are used for this slide
+     */
+    private void captureSnapshots() {
+        if (!mSnapshotDuringSlide || mSnapshotActive || !isAttached()) {
+            return;
+        }
+        if (mPartialSnapshot == null) {
+            mPartialSnapshot = new PanelSnapshot();
+            mFullSnapshot = new PanelSnapshot();
+        }
+        if (mPartialSnapshot.capture(partialView) && mFullSnapshot.capture(fullView)) {
+            mSnapshotActive = true;
+        } else {
+            mPartialSnapshot.release();
+            mFullSnapshot.release();
+        }
+    }
+
+    /**
+     * helper method to swap back to the live views, the bitmaps are kept for the next slide
+     */
+    private void releaseSnapshots() {
+        if (!mSnapshotActive) {
+            return;
+        }
+        mSnapshotActive = false;
+        mPartialSnapshot.release();
+        mFullSnapshot.release();
+        if (mState >= 0) {
+            applyVisibility(mState);
+        }
+        mLayout.invalidate();
+    }
+
+    /**
+     * helper method to apply the visibility of the given state to the partialView and fullView.
+     * at rest the hidden view is GONE, so it is not measured, laid out or drawn
+     *
+     * @param state
+     */
+    private void applyVisibility(int state) {
+        if (mSnapshotActive) {
+            //the snapshots are drawn instead, the live views are not drawn or updated while the pane slides
+            if (partialView.getVisibility() != View.INVISIBLE) {
+                partialView.setVisibility(View.INVISIBLE);
+            }
+            if (fullView.getVisibility() != View.INVISIBLE) {
+                fullView.setVisibility(View.INVISIBLE);
+            }
+            return;
+        }
+
+        int partialVisibility = state == STATE_OPENED ? View.GONE : View.VISIBLE;
+        if (partialView.getVisibility() != partialVisibility) {
+            partialView.setVisibility(partialVisibility);
+        }
+
+        //if the fullView is hidden we prevent the click on all its views and subviews
+        //otherwhise enable it again
+        setFullViewInteractive(state != STATE_CLOSED);
+    }
+
+    /**
+     * helper method to block the touch, key and accessibility focus of the fullView and all its subviews.
+     * this is done on the container only (a GONE view receives no events and no focus),
+     * so the enabled state of the subviews is kept as is
+     *
+     * @param interactive
+     */
+    private void setFullViewInteractive(boolean interactive) {
+        int visibility = interactive ? View.VISIBLE : View.GONE;
+        if (fullView.getVisibility() != visibility) {
+            fullView.setVisibility(visibility);
+        }
+    }
+}
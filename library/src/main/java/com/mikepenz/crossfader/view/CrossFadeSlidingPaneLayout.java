@@ -1,24 +1,42 @@
 package com.mikepenz.crossfader.view;
 
 import android.content.Context;
+import android.graphics.Canvas;
 import androidx.slidingpanelayout.widget.SlidingPaneLayout;
 import android.util.AttributeSet;
 import android.view.MotionEvent;
 import android.view.View;
-import android.view.ViewGroup;
+
+import com.mikepenz.crossfader.metrics.InputLatencyProbe;
 
 /**
  * SlidingPaneLayout that is partially visible, with cross fade.
  * https://github.com/chiuki/sliding-pane-layout
  */
 public class CrossFadeSlidingPaneLayout extends SlidingPaneLayout implements ICrossFadeSlidingPaneLayout {
-    private View partialView = null;
-    private View fullView = null;
+    // applies the crossfade to the fullView and partialView
+    private final CrossFadeHelper mCrossFadeHelper = new CrossFadeHelper();
+    // all listeners (the crossfade listener first), dispatched in one loop
+    private final PanelSlideListenerRegistry mPanelSlideListeners = new PanelSlideListenerRegistry();
+    // the listener set by setPanelSlideListener
+    private PanelSlideListener mPanelSlideListener;
+    private boolean mPanelSlideListenersInstalled = false;
 
     // helper flag pre honeycomb used in visibility and click response handling
     // helps avoid unnecessary layouts
     private boolean wasOpened = false;
     private boolean mCanSlide = true;
+    // updated with the measured width, before the children are measured
+    private PaneWidths mPaneWidths;
+    // records the input to frame latency of drags, if set
+    private InputLatencyProbe mInputLatencyProbe;
+
+    // true until the layout was laid out after being attached, openPane and closePane are applied by the first layout
+    private boolean mFirstLayout = true;
+    // the state requested by openPane or closePane (or reached by a drag), applied by the first layout
+    private boolean mPreservedOpenState = false;
+    // the current offset of the pane, tracked from the slide events
+    private float mSlideOffset = 0;
 
     public CrossFadeSlidingPaneLayout(Context context) {
         super(context);
@@ -32,132 +50,359 @@ public class CrossFadeSlidingPaneLayout extends SlidingPaneLayout implements ICr
         super(context, attrs, defStyle);
     }
 
+    /**
+     * creates the panel (with the first and second container) and the content container in code, with their final
+     * LayoutParams. This is the inflation free alternative to the crossfader_base layout and has to be called on an
+     * empty layout.
+     *
+     * @param firstWidth
+     * @param secondWidth
+     */
+    public void createContainers(int firstWidth, int secondWidth) {
+        CrossFadeHelper.createContainers(this, firstWidth, secondWidth);
+
+        //the hierarchy is complete now, the same as after the inflation
+        init();
+    }
+
     @Override
     protected void onFinishInflate() {
         super.onFinishInflate();
+        init();
+    }
 
-        if (getChildCount() < 1) {
-            return;
+    /**
+     * attaches the crossfade to the panel, once the hierarchy is complete (inflated or created in code)
+     */
+    private void init() {
+        if (mCrossFadeHelper.attach(this)) {
+            mPanelSlideListeners.add(crossFadeListener);
         }
+        installPanelSlideListeners();
+    }
 
-        View panel = getChildAt(0);
-        if (!(panel instanceof ViewGroup)) {
+    @Override
+    public void setPanelSlideListener(PanelSlideListener listener) {
+        mPanelSlideListeners.remove(mPanelSlideListener);
+        this.mPanelSlideListener = listener;
+        mPanelSlideListeners.add(listener);
+        installPanelSlideListeners();
+    }
+
+    /**
+     * adds a listener which is notified in addition to the one set by setPanelSlideListener
+     *
+     * @param listener
+     */
+    @Override
+    public void addPanelSlideListener(PanelSlideListener listener) {
+        mPanelSlideListeners.add(listener);
+        installPanelSlideListeners();
+    }
+
+    @Override
+    public void removePanelSlideListener(PanelSlideListener listener) {
+        mPanelSlideListeners.remove(listener);
+    }
+
+    /**
+     * helper method to register the registry as the only listener of the SlidingPaneLayout.
+     * the SlidingPaneLayout still dispatches its own listener list with a for-each loop, which allocates one iterator
+     * per event, but this stays a single allocation per frame no matter how many listeners are added
+     */
+    private void installPanelSlideListeners() {
+        if (mPanelSlideListenersInstalled) {
             return;
         }
+        mPanelSlideListenersInstalled = true;
+        super.addPanelSlideListener(mPanelSlideListeners);
+    }
 
-        ViewGroup viewGroup = (ViewGroup) panel;
-        if (viewGroup.getChildCount() != 2) {
-            return;
+    @Override
+    protected void onMeasure(int widthMeasureSpec, int heightMeasureSpec) {
+        if (mPaneWidths != null && MeasureSpec.getMode(widthMeasureSpec) != MeasureSpec.UNSPECIFIED) {
+            mPaneWidths.setPaneWidth(MeasureSpec.getSize(widthMeasureSpec) - getPaddingLeft() - getPaddingRight());
         }
-        fullView = viewGroup.getChildAt(0);
-        partialView = viewGroup.getChildAt(1);
+        super.onMeasure(widthMeasureSpec, heightMeasureSpec);
+    }
 
-        super.setPanelSlideListener(crossFadeListener);
+    @Override
+    protected void onLayout(boolean changed, int l, int t, int r, int b) {
+        super.onLayout(changed, l, t, r, b);
 
-        //make sure we prevent click on the fullView when we create the crossfader
-        //just do this if we are not opened
-        if (!isOpen()) {
-            enableDisableView(fullView, false);
+        if (mFirstLayout) {
+            //the first layout applies the preserved state without a slide event
+            mSlideOffset = super.isOpen() ? 1 : 0;
         }
-        fullView.addOnLayoutChangeListener(new OnLayoutChangeListener() {
-            @Override
-            public void onLayoutChange(View v, int left, int top, int right, int bottom, int oldLeft, int oldTop, int oldRight, int oldBottom) {
-                if (!isOpen()) {
-                    enableDisableView(v, false);
-                }
-            }
-        });
+        mFirstLayout = false;
+        mCrossFadeHelper.onLayout(isOpen());
     }
 
     @Override
-    public void setPanelSlideListener(final PanelSlideListener listener) {
-        if (listener == null) {
-            super.setPanelSlideListener(crossFadeListener);
-            return;
+    protected void onAttachedToWindow() {
+        super.onAttachedToWindow();
+        mFirstLayout = true;
+        if (mInputLatencyProbe != null) {
+            getViewTreeObserver().addOnDrawListener(mInputLatencyProbe);
         }
+    }
 
-        super.setPanelSlideListener(new PanelSlideListener() {
-            @Override
-            public void onPanelSlide(View panel, float slideOffset) {
-                crossFadeListener.onPanelSlide(panel, slideOffset);
-                listener.onPanelSlide(panel, slideOffset);
-            }
-
-            @Override
-            public void onPanelOpened(View panel) {
-                listener.onPanelOpened(panel);
-            }
+    /**
+     * before the first layout the SlidingPaneLayout does not know if it can slide and reports to be open,
+     * so we return the state requested by openPane or closePane until then
+     *
+     * @return
+     */
+    @Override
+    public boolean isOpen() {
+        if (mFirstLayout) {
+            return mPreservedOpenState;
+        }
+        return super.isOpen();
+    }
 
-            @Override
-            public void onPanelClosed(View panel) {
-                listener.onPanelClosed(panel);
-            }
-        });
+    @Override
+    protected void onDetachedFromWindow() {
+        super.onDetachedFromWindow();
+        mFirstLayout = true;
+        if (mInputLatencyProbe != null) {
+            getViewTreeObserver().removeOnDrawListener(mInputLatencyProbe);
+        }
+        mCrossFadeHelper.onDetachedFromWindow();
     }
 
+    @Override
+    protected boolean drawChild(Canvas canvas, View child, long drawingTime) {
+        boolean result = super.drawChild(canvas, child, drawingTime);
+        if (child == getChildAt(0)) {
+            //the snapshots replace the panels while the pane slides
+            mCrossFadeHelper.drawSnapshots(canvas, child);
+        }
+        return result;
+    }
 
     @Override
-    protected void onLayout(boolean changed, int l, int t, int r, int b) {
-        super.onLayout(changed, l, t, r, b);
+    public void requestLayout() {
+        super.requestLayout();
+        //requestLayout is already called from the super constructor
+        if (mCrossFadeHelper != null) {
+            mCrossFadeHelper.onRequestLayout();
+        }
+    }
+
+    /**
+     * @return the current state, one of STATE_CLOSED, STATE_SLIDING or STATE_OPENED
+     */
+    public int getState() {
+        return mCrossFadeHelper.getState();
+    }
 
-        if (partialView != null) {
-            partialView.setVisibility(isOpen() ? View.GONE : VISIBLE);
+    /**
+     * @return the current offset of the pane, 0 is closed and 1 is opened
+     */
+    public float getSlideOffset() {
+        if (mFirstLayout) {
+            return mPreservedOpenState ? 1 : 0;
         }
+        return mSlideOffset;
+    }
+
+    /**
+     * returns how many layout requests reached this layout since the current (or last) slide started.
+     * a slide starts when the pane leaves the closed or opened state and ends when it reaches one of them again
+     *
+     * @return
+     */
+    public int getSlideLayoutRequestCount() {
+        return mCrossFadeHelper.getSlideLayoutRequestCount();
     }
 
     private SimplePanelSlideListener crossFadeListener = new SimplePanelSlideListener() {
         @Override
         public void onPanelSlide(View panel, float slideOffset) {
             super.onPanelSlide(panel, slideOffset);
-            if (partialView == null || fullView == null) {
-                return;
+            mSlideOffset = slideOffset;
+            mCrossFadeHelper.onPanelSlide(slideOffset);
+            if (mInputLatencyProbe != null) {
+                mInputLatencyProbe.onOffsetApplied();
             }
+        }
+
+        @Override
+        public void onPanelOpened(View panel) {
+            super.onPanelOpened(panel);
+            mPreservedOpenState = true;
+            mSlideOffset = 1;
+            mCrossFadeHelper.onPanelSettled();
+        }
 
-            setOffset(slideOffset);
+        @Override
+        public void onPanelClosed(View panel) {
+            super.onPanelClosed(panel);
+            mPreservedOpenState = false;
+            mSlideOffset = 0;
+            mCrossFadeHelper.onPanelSettled();
         }
     };
 
+    /**
+     * @return true if the pane slides, false if it does not move or if the state is applied by the first layout
+     */
+    @Override
+    public boolean openPane() {
+        if (mFirstLayout) {
+            //the SlidingPaneLayout applies the state with the first layout, without an animation or slide events
+            mPreservedOpenState = true;
+            mCrossFadeHelper.setOffset(1);
+            super.openPane();
+            return false;
+        }
+        mCrossFadeHelper.onSlideStarting();
+        boolean sliding = super.openPane();
+        if (!sliding) {
+            //no slide will happen, so nobody would release the layers again
+            mCrossFadeHelper.onPanelSettled();
+        }
+        return sliding;
+    }
+
+    /**
+     * @return true if the pane slides, false if it does not move or if the state is applied by the first layout
+     */
+    @Override
+    public boolean closePane() {
+        if (mFirstLayout) {
+            //the SlidingPaneLayout applies the state with the first layout, without an animation or slide events
+            mPreservedOpenState = false;
+            mCrossFadeHelper.setOffset(0);
+            super.closePane();
+            return false;
+        }
+        mCrossFadeHelper.onSlideStarting();
+        boolean sliding = super.closePane();
+        if (!sliding) {
+            //no slide will happen, so nobody would release the layers again
+            mCrossFadeHelper.onPanelSettled();
+        }
+        return sliding;
+    }
+
     @Override
     public boolean onInterceptTouchEvent(MotionEvent ev) {
+        if (mCanSlide) {
+            mCrossFadeHelper.onTouchEvent(ev, isInSlideHintRegion(ev));
+            if (mInputLatencyProbe != null) {
+                mInputLatencyProbe.onTouchEvent(ev);
+            }
+        }
         return mCanSlide && super.onInterceptTouchEvent(ev);
     }
 
     @Override
     public boolean onTouchEvent(MotionEvent ev) {
+        if (mCanSlide) {
+            mCrossFadeHelper.onTouchEvent(ev, isInSlideHintRegion(ev));
+            if (mInputLatencyProbe != null) {
+                mInputLatencyProbe.onTouchEvent(ev);
+            }
+        }
         return mCanSlide && super.onTouchEvent(ev);
     }
 
+    @Override
+    public boolean dispatchTouchEvent(MotionEvent ev) {
+        final boolean handled = super.dispatchTouchEvent(ev);
+        mCrossFadeHelper.onTouchEventDispatched(ev);
+        return handled;
+    }
+
+    @Override
+    public boolean onInterceptHoverEvent(MotionEvent ev) {
+        if (mCanSlide) {
+            mCrossFadeHelper.onHoverEvent(ev, isInSlideHintRegion(ev));
+        }
+        return super.onInterceptHoverEvent(ev);
+    }
+
+    /**
+     * @param ev
+     * @return true if a pointer at the position of the event hints that a drag may follow, by default if it is over the visible part of the panel
+     */
+    protected boolean isInSlideHintRegion(MotionEvent ev) {
+        View content = getChildCount() > 1 ? getChildAt(1) : null;
+        return content != null && ev.getX() < content.getLeft();
+    }
+
     public void setCanSlide(boolean canSlide) {
         this.mCanSlide = canSlide;
     }
 
-    public void setOffset(float slideOffset) {
-        partialView.setAlpha(1 - slideOffset);
-        fullView.setAlpha(slideOffset);
-        partialView.setVisibility(isOpen() ? View.GONE : VISIBLE);
+    /**
+     * if enabled the first and second panel are rendered into hardware layers while the pane slides
+     * so the crossfade is only a layer alpha change and the subtrees are not redrawn each frame.
+     * the layers are dropped again as soon as the pane is opened or closed
+     *
+     * @param hardwareLayerDuringSlide
+     */
+    public void setHardwareLayerDuringSlide(boolean hardwareLayerDuringSlide) {
+        mCrossFadeHelper.setHardwareLayerDuringSlide(hardwareLayerDuringSlide);
+    }
 
-        //if the fullView is hidden we prevent the click on all its views and subviews
-        //otherwhise enable it again
-        if (slideOffset == 0 && fullView.isEnabled() || slideOffset != 0 && !fullView.isEnabled()) {
-            enableDisableView(fullView, slideOffset != 0);
-        }
+    /**
+     * defines the PaneWidths which are updated with the width this layout is measured with
+     *
+     * @param paneWidths
+     */
+    public void setPaneWidths(PaneWidths paneWidths) {
+        this.mPaneWidths = paneWidths;
     }
 
     /**
-     * helper method to disable a view and all its subviews
+     * if enabled a touch down which may start a drag (or a pointer hovering over the panel) measures, lays out and
+     * records the hidden panel right away, so this work is not done by the first frame of the drag
      *
-     * @param view
-     * @param enabled
+     * @param prewarmOnTouch
      */
-    private void enableDisableView(View view, boolean enabled) {
-        view.setEnabled(enabled);
-        view.setFocusable(enabled);
-        if (view instanceof ViewGroup) {
-            ViewGroup group = (ViewGroup) view;
+    public void setPrewarmOnTouch(boolean prewarmOnTouch) {
+        mCrossFadeHelper.setPrewarmOnTouch(prewarmOnTouch);
+    }
 
-            for (int idx = 0; idx < group.getChildCount(); idx++) {
-                enableDisableView(group.getChildAt(idx), enabled);
-            }
+    /**
+     * defines the listener which is notified before a slide starts, to create what the slide needs
+     *
+     * @param onPrepareSlideListener
+     */
+    public void setOnPrepareSlideListener(OnPrepareSlideListener onPrepareSlideListener) {
+        mCrossFadeHelper.setOnPrepareSlideListener(onPrepareSlideListener);
+    }
+
+    /**
+     * defines the InputLatencyProbe which records how far the panel lags behind the finger, null to disable it
+     *
+     * @param inputLatencyProbe
+     */
+    public void setInputLatencyProbe(InputLatencyProbe inputLatencyProbe) {
+        if (getWindowToken() != null && mInputLatencyProbe != null) {
+            getViewTreeObserver().removeOnDrawListener(mInputLatencyProbe);
+        }
+        this.mInputLatencyProbe = inputLatencyProbe;
+        if (getWindowToken() != null && mInputLatencyProbe != null) {
+            getViewTreeObserver().addOnDrawListener(mInputLatencyProbe);
         }
     }
+
+    /**
+     * if enabled the first and second panel are recorded once when a slide starts and the crossfade is drawn from these
+     * snapshots (a RenderNode on API 29+, a reused Bitmap below) until the pane is opened or closed.
+     * the live panels are not drawn or updated while the pane slides
+     *
+     * @param snapshotDuringSlide
+     */
+    public void setSnapshotDuringSlide(boolean snapshotDuringSlide) {
+        mCrossFadeHelper.setSnapshotDuringSlide(snapshotDuringSlide);
+    }
+
+    public void setOffset(float slideOffset) {
+        mCrossFadeHelper.setOffset(slideOffset);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,798 @@
+package com.mikepenz.crossfader.view;
+
+import android.content.Context;
+import android.graphics.Canvas;
+import androidx.core.view.ViewCompat;
+import androidx.customview.widget.ViewDragHelper;
+import androidx.slidingpanelayout.widget.SlidingPaneLayout;
+import android.util.AttributeSet;
+import android.view.MotionEvent;
+import android.view.View;
+import android.view.ViewGroup;
+
+import com.mikepenz.crossfader.metrics.InputLatencyProbe;
+
+/**
+ * A lightweight crossfader layout which is driven by a ViewDragHelper instead of a SlidingPaneLayout.
+ * The first child is the panel (containing the fullView and partialView), the second child is the content which
+ * slides from its start margin (the width of the partialView) to the end edge of the panel (the width of the fullView).
+ * Like the SlidingPaneLayout it is mirrored for a RTL layout direction, the panel is at the right and the content
+ * slides to the left. Every child is measured exactly once per measure pass.
+ */
+public class CrossfadeLayout extends ViewGroup implements ICrossFadeSlidingPaneLayout {
+    /**
+     * can be implemented by a PanelSlideListener (added with addPanelSlideListener) to be notified if the content
+     * settles at an intermediate stage, where neither onPanelOpened nor onPanelClosed is called
+     */
+    public interface OnStageSettledListener {
+        /**
+         * @param panel       the content
+         * @param stage       the stage the content rests at, between 0 (closed) and getStageCount() - 1 (opened)
+         * @param slideOffset the offset of the stage
+         */
+        void onStageSettled(View panel, int stage, float slideOffset);
+    }
+
+    // minimum velocity that will be detected as a fling, same as the SlidingPaneLayout
+    private static final int MIN_FLING_VELOCITY = 400; // dips per second
+
+    // applies the crossfade to the fullView and partialView
+    private final CrossFadeHelper mCrossFadeHelper = new CrossFadeHelper();
+    private final ViewDragHelper mDragHelper;
+
+    // all listeners, dispatched in one loop
+    private final PanelSlideListenerRegistry mPanelSlideListeners = new PanelSlideListenerRegistry();
+    // the listener set by setPanelSlideListener
+    private SlidingPaneLayout.PanelSlideListener mPanelSlideListener;
+    private boolean mCanSlide = true;
+    // updated with the measured width, before the children are measured
+    private PaneWidths mPaneWidths;
+    // records the input to frame latency of drags, if set
+    private InputLatencyProbe mInputLatencyProbe;
+
+    // the current offset of the content, 0 is closed and 1 is opened
+    private float mSlideOffset = 0;
+    // the distance the content can slide
+    private int mSlideRange = 0;
+    // true until the layout was laid out after being attached, slides are applied directly until then
+    private boolean mFirstLayout = true;
+
+    // animates programmatic slides and releases with a spring, null if the ViewDragHelper settles them
+    private SpringSlideAnimator mSpring;
+    private float mSpringStiffness = SpringSlideAnimator.DEFAULT_STIFFNESS;
+    private float mSpringDampingRatio = SpringSlideAnimator.DEFAULT_DAMPING_RATIO;
+
+    // helper values to let vertical gestures pass to the children
+    private float mInitialMotionX;
+    private float mInitialMotionY;
+    private boolean mIsUnableToDrag = false;
+
+    public CrossfadeLayout(Context context) {
+        this(context, null);
+    }
+
+    public CrossfadeLayout(Context context, AttributeSet attrs) {
+        this(context, attrs, 0);
+    }
+
+    public CrossfadeLayout(Context context, AttributeSet attrs, int defStyle) {
+        super(context, attrs, defStyle);
+
+        float density = context.getResources().getDisplayMetrics().density;
+        mDragHelper = ViewDragHelper.create(this, 0.5f, new DragHelperCallback());
+        mDragHelper.setMinVelocity(MIN_FLING_VELOCITY * density);
+    }
+
+    /**
+     * creates the panel (with the first and second container) and the content container in code, with their final
+     * LayoutParams. This is the inflation free alternative to the crossfader_layout and has to be called on an
+     * empty layout.
+     *
+     * @param firstWidth
+     * @param secondWidth
+     */
+    public void createContainers(int firstWidth, int secondWidth) {
+        CrossFadeHelper.createContainers(this, firstWidth, secondWidth);
+
+        //the hierarchy is complete now, the same as after the inflation
+        init();
+    }
+
+    /**
+     * adds an intermediate stage to the panel, between the second (closed) and the first (opened) view.
+     * stages have to be added from the narrowest to the widest, the content can rest at every stage and only the two
+     * stages adjacent to the current offset are shown, all others are GONE
+     *
+     * @param stage
+     * @param width
+     */
+    public void addStage(View stage, int width) {
+        final View panel = getPanel();
+        if (!(panel instanceof ViewGroup)) {
+            return;
+        }
+        ((ViewGroup) panel).addView(stage, width, LayoutParams.MATCH_PARENT);
+
+        //the stages changed, keep the current offset
+        mCrossFadeHelper.attach(this);
+        mCrossFadeHelper.setOffset(mSlideOffset);
+    }
+
+    @Override
+    protected void onFinishInflate() {
+        super.onFinishInflate();
+        init();
+    }
+
+    /**
+     * attaches the crossfade to the panel, once the hierarchy is complete (inflated or created in code)
+     */
+    private void init() {
+        mCrossFadeHelper.attach(this);
+    }
+
+    @Override
+    protected void onAttachedToWindow() {
+        super.onAttachedToWindow();
+        mFirstLayout = true;
+        if (mInputLatencyProbe != null) {
+            getViewTreeObserver().addOnDrawListener(mInputLatencyProbe);
+        }
+    }
+
+    @Override
+    protected void onDetachedFromWindow() {
+        super.onDetachedFromWindow();
+        mFirstLayout = true;
+        if (mInputLatencyProbe != null) {
+            getViewTreeObserver().removeOnDrawListener(mInputLatencyProbe);
+        }
+        if (mSpring != null && mSpring.isRunning()) {
+            //jump to the end of the animation, no frames will be drawn anymore
+            mSpring.cancel();
+            applySlideOffset(mSpring.getTargetValue());
+            onPanelSettled();
+        }
+        mCrossFadeHelper.onDetachedFromWindow();
+    }
+
+    @Override
+    protected void onMeasure(int widthMeasureSpec, int heightMeasureSpec) {
+        int widthSize = MeasureSpec.getSize(widthMeasureSpec);
+        if (mPaneWidths != null && MeasureSpec.getMode(widthMeasureSpec) != MeasureSpec.UNSPECIFIED) {
+            mPaneWidths.setPaneWidth(widthSize - getPaddingLeft() - getPaddingRight());
+        }
+        int maxHeight = 0;
+
+        final int childCount = getChildCount();
+        for (int i = 0; i < childCount; i++) {
+            final View child = getChildAt(i);
+            if (child.getVisibility() == GONE) {
+                continue;
+            }
+            measureChildWithMargins(child, widthMeasureSpec, 0, heightMeasureSpec, 0);
+
+            final MarginLayoutParams lp = (MarginLayoutParams) child.getLayoutParams();
+            maxHeight = Math.max(maxHeight, child.getMeasuredHeight() + lp.topMargin + lp.bottomMargin);
+        }
+
+        maxHeight += getPaddingTop() + getPaddingBottom();
+        setMeasuredDimension(widthSize, resolveSize(maxHeight, heightMeasureSpec));
+    }
+
+    @Override
+    protected void onLayout(boolean changed, int l, int t, int r, int b) {
+        final boolean isLayoutRtl = isLayoutRtlSupport();
+        final int paddingTop = getPaddingTop();
+
+        //the end edge of the panel, the opened position of the content
+        final View panel = getPanel();
+        int panelEnd = isLayoutRtl ? r - l - getPaddingRight() : getPaddingLeft();
+        if (panel != null && panel.getVisibility() != GONE) {
+            final MarginLayoutParams lp = (MarginLayoutParams) panel.getLayoutParams();
+            final int left;
+            if (isLayoutRtl) {
+                left = r - l - getPaddingRight() - lp.rightMargin - panel.getMeasuredWidth();
+            } else {
+                left = getPaddingLeft() + lp.leftMargin;
+            }
+            final int top = paddingTop + lp.topMargin;
+            panel.layout(left, top, left + panel.getMeasuredWidth(), top + panel.getMeasuredHeight());
+            panelEnd = isLayoutRtl ? panel.getLeft() : panel.getRight();
+        }
+
+        final View content = getSlideableView();
+        if (content != null && content.getVisibility() != GONE) {
+            final int closedLeft = getClosedLeft();
+            if (isLayoutRtl) {
+                mSlideRange = Math.max(0, closedLeft + content.getMeasuredWidth() - panelEnd);
+            } else {
+                mSlideRange = Math.max(0, panelEnd - closedLeft);
+            }
+
+            final int left = getContentLeft(mSlideOffset);
+            final int top = paddingTop + ((MarginLayoutParams) content.getLayoutParams()).topMargin;
+            content.layout(left, top, left + content.getMeasuredWidth(), top + content.getMeasuredHeight());
+        }
+
+        mFirstLayout = false;
+        mCrossFadeHelper.onLayout(isOpen());
+    }
+
+    @Override
+    protected boolean drawChild(Canvas canvas, View child, long drawingTime) {
+        boolean result = super.drawChild(canvas, child, drawingTime);
+        if (child == getChildAt(0)) {
+            //the snapshots replace the panels while the pane slides
+            mCrossFadeHelper.drawSnapshots(canvas, child);
+        }
+        return result;
+    }
+
+    @Override
+    public void requestLayout() {
+        super.requestLayout();
+        //requestLayout is already called from the super constructor
+        if (mCrossFadeHelper != null) {
+            mCrossFadeHelper.onRequestLayout();
+        }
+    }
+
+    @Override
+    public void computeScroll() {
+        if (mDragHelper.continueSettling(true)) {
+            ViewCompat.postInvalidateOnAnimation(this);
+        }
+    }
+
+    @Override
+    public boolean onInterceptTouchEvent(MotionEvent ev) {
+        if (!mCanSlide || getSlideableView() == null) {
+            mDragHelper.cancel();
+            return false;
+        }
+
+        mCrossFadeHelper.onTouchEvent(ev, isInSlideHintRegion(ev));
+        if (mInputLatencyProbe != null) {
+            mInputLatencyProbe.onTouchEvent(ev);
+        }
+
+        final int action = ev.getActionMasked();
+        if (action == MotionEvent.ACTION_CANCEL || action == MotionEvent.ACTION_UP) {
+            mDragHelper.cancel();
+            return false;
+        }
+
+        switch (action) {
+            case MotionEvent.ACTION_DOWN:
+                mIsUnableToDrag = false;
+                mInitialMotionX = ev.getX();
+                mInitialMotionY = ev.getY();
+                break;
+            case MotionEvent.ACTION_MOVE:
+                //leave vertical gestures to the children
+                final float adx = Math.abs(ev.getX() - mInitialMotionX);
+                final float ady = Math.abs(ev.getY() - mInitialMotionY);
+                if (ady > mDragHelper.getTouchSlop() && ady > adx) {
+                    mDragHelper.cancel();
+                    mIsUnableToDrag = true;
+                    return false;
+                }
+                break;
+        }
+
+        return !mIsUnableToDrag && mDragHelper.shouldInterceptTouchEvent(ev);
+    }
+
+    @Override
+    public boolean onTouchEvent(MotionEvent ev) {
+        if (!mCanSlide) {
+            return super.onTouchEvent(ev);
+        }
+        mCrossFadeHelper.onTouchEvent(ev, isInSlideHintRegion(ev));
+        if (mInputLatencyProbe != null) {
+            mInputLatencyProbe.onTouchEvent(ev);
+        }
+        mDragHelper.processTouchEvent(ev);
+        return true;
+    }
+
+    @Override
+    public boolean dispatchTouchEvent(MotionEvent ev) {
+        final boolean handled = super.dispatchTouchEvent(ev);
+        mCrossFadeHelper.onTouchEventDispatched(ev);
+        return handled;
+    }
+
+    @Override
+    public boolean onInterceptHoverEvent(MotionEvent ev) {
+        if (mCanSlide) {
+            mCrossFadeHelper.onHoverEvent(ev, isInSlideHintRegion(ev));
+        }
+        return super.onInterceptHoverEvent(ev);
+    }
+
+    /**
+     * @param ev
+     * @return true if a pointer at the position of the event hints that a drag may follow, by default if it is over the visible part of the panel
+     */
+    private boolean isInSlideHintRegion(MotionEvent ev) {
+        View content = getChildCount() > 1 ? getChildAt(1) : null;
+        if (content == null) {
+            return false;
+        }
+        return isLayoutRtlSupport() ? ev.getX() > content.getRight() : ev.getX() < content.getLeft();
+    }
+
+    public void setCanSlide(boolean canSlide) {
+        this.mCanSlide = canSlide;
+    }
+
+    /**
+     * if enabled the first and second panel are rendered into hardware layers while the pane slides
+     * so the crossfade is only a layer alpha change and the subtrees are not redrawn each frame.
+     * the layers are dropped again as soon as the pane is opened or closed
+     *
+     * @param hardwareLayerDuringSlide
+     */
+    public void setHardwareLayerDuringSlide(boolean hardwareLayerDuringSlide) {
+        mCrossFadeHelper.setHardwareLayerDuringSlide(hardwareLayerDuringSlide);
+    }
+
+    /**
+     * if enabled openPane and closePane (and the release of a drag) animate the content with a spring instead of the
+     * fixed settle of the ViewDragHelper. the spring can be retargeted while running and keeps its velocity,
+     * so toggling the pane mid-animation reverses it smoothly
+     *
+     * @param springAnimation
+     */
+    public void setSpringAnimation(boolean springAnimation) {
+        if (springAnimation && mSpring == null) {
+            mSpring = new SpringSlideAnimator(new SpringTarget());
+            mSpring.setStiffness(mSpringStiffness);
+            mSpring.setDampingRatio(mSpringDampingRatio);
+        } else if (!springAnimation && mSpring != null) {
+            if (mSpring.isRunning()) {
+                mSpring.cancel();
+                applySlideOffset(mSpring.getTargetValue());
+                onPanelSettled();
+            }
+            mSpring = null;
+        }
+    }
+
+    /**
+     * defines the spring used if the spring animation is enabled
+     *
+     * @param stiffness    the stiffness of the spring, default 1500 (higher is faster)
+     * @param dampingRatio the damping ratio of the spring, default 1 (no overshoot), lower values bounce at the end
+     */
+    public void setSpringParameters(float stiffness, float dampingRatio) {
+        this.mSpringStiffness = stiffness;
+        this.mSpringDampingRatio = dampingRatio;
+        if (mSpring != null) {
+            mSpring.setStiffness(stiffness);
+            mSpring.setDampingRatio(dampingRatio);
+        }
+    }
+
+    /**
+     * defines the PaneWidths which are updated with the width this layout is measured with
+     *
+     * @param paneWidths
+     */
+    public void setPaneWidths(PaneWidths paneWidths) {
+        this.mPaneWidths = paneWidths;
+    }
+
+    /**
+     * if enabled a touch down which may start a drag (or a pointer hovering over the panel) measures, lays out and
+     * records the hidden panel right away, so this work is not done by the first frame of the drag
+     *
+     * @param prewarmOnTouch
+     */
+    public void setPrewarmOnTouch(boolean prewarmOnTouch) {
+        mCrossFadeHelper.setPrewarmOnTouch(prewarmOnTouch);
+    }
+
+    /**
+     * defines the listener which is notified before a slide starts, to create what the slide needs
+     *
+     * @param onPrepareSlideListener
+     */
+    public void setOnPrepareSlideListener(OnPrepareSlideListener onPrepareSlideListener) {
+        mCrossFadeHelper.setOnPrepareSlideListener(onPrepareSlideListener);
+    }
+
+    /**
+     * defines the InputLatencyProbe which records how far the panel lags behind the finger, null to disable it
+     *
+     * @param inputLatencyProbe
+     */
+    public void setInputLatencyProbe(InputLatencyProbe inputLatencyProbe) {
+        if (getWindowToken() != null && mInputLatencyProbe != null) {
+            getViewTreeObserver().removeOnDrawListener(mInputLatencyProbe);
+        }
+        this.mInputLatencyProbe = inputLatencyProbe;
+        if (getWindowToken() != null && mInputLatencyProbe != null) {
+            getViewTreeObserver().addOnDrawListener(mInputLatencyProbe);
+        }
+    }
+
+    /**
+     * if enabled the first and second panel are recorded once when a slide starts and the crossfade is drawn from these
+     * snapshots (a RenderNode on API 29+, a reused Bitmap below) until the pane is opened or closed.
+     * the live panels are not drawn or updated while the pane slides
+     *
+     * @param snapshotDuringSlide
+     */
+    public void setSnapshotDuringSlide(boolean snapshotDuringSlide) {
+        mCrossFadeHelper.setSnapshotDuringSlide(snapshotDuringSlide);
+    }
+
+    public void setOffset(float slideOffset) {
+        mCrossFadeHelper.setOffset(slideOffset);
+    }
+
+    public void setPanelSlideListener(SlidingPaneLayout.PanelSlideListener listener) {
+        mPanelSlideListeners.remove(mPanelSlideListener);
+        this.mPanelSlideListener = listener;
+        mPanelSlideListeners.add(listener);
+    }
+
+    /**
+     * adds a listener which is notified in addition to the one set by setPanelSlideListener
+     *
+     * @param listener
+     */
+    public void addPanelSlideListener(SlidingPaneLayout.PanelSlideListener listener) {
+        mPanelSlideListeners.add(listener);
+    }
+
+    public void removePanelSlideListener(SlidingPaneLayout.PanelSlideListener listener) {
+        mPanelSlideListeners.remove(listener);
+    }
+
+    /**
+     * @return the current state, one of STATE_CLOSED, STATE_SLIDING or STATE_OPENED
+     */
+    public int getState() {
+        return mCrossFadeHelper.getState();
+    }
+
+    /**
+     * returns how many layout requests reached this layout since the current (or last) slide started.
+     * a slide starts when the pane leaves the closed or opened state and ends when it reaches one of them again
+     *
+     * @return
+     */
+    public int getSlideLayoutRequestCount() {
+        return mCrossFadeHelper.getSlideLayoutRequestCount();
+    }
+
+    /**
+     * @return the current offset of the content, 0 is closed and 1 is opened
+     */
+    public float getSlideOffset() {
+        return mSlideOffset;
+    }
+
+    /**
+     * while the spring animation runs this returns the state the pane animates to
+     *
+     * @return
+     */
+    public boolean isOpen() {
+        if (mSpring != null && mSpring.isRunning()) {
+            return mSpring.getTargetValue() == 1;
+        }
+        return mSlideOffset == 1;
+    }
+
+    public boolean openPane() {
+        return smoothSlideTo(1);
+    }
+
+    /**
+     * @return the number of stages, 2 (closed and opened) if no intermediate stages were added
+     */
+    public int getStageCount() {
+        return mCrossFadeHelper.getStageCount();
+    }
+
+    /**
+     * @return the stage closest to the current offset, 0 is closed and getStageCount() - 1 is opened
+     */
+    public int getStage() {
+        int stage = 0;
+        float distance = 2;
+        final int count = mCrossFadeHelper.getStageCount();
+        for (int i = 0; i < count; i++) {
+            float d = Math.abs(mCrossFadeHelper.getStageOffset(i) - mSlideOffset);
+            if (d < distance) {
+                distance = d;
+                stage = i;
+            }
+        }
+        return stage;
+    }
+
+    /**
+     * moves the content to the given stage without an animation, see setSlideOffset
+     *
+     * @param stage 0 is closed and getStageCount() - 1 is opened
+     */
+    public void setStage(int stage) {
+        setSlideOffset(mCrossFadeHelper.getStageOffset(stage));
+    }
+
+    /**
+     * moves the content to the given offset without an animation. if the layout was not laid out yet, the offset
+     * is only stored and applied by the first layout pass, so restoring a state does not cost an additional layout
+     *
+     * @param slideOffset
+     */
+    public void setSlideOffset(float slideOffset) {
+        if (mSpring != null) {
+            mSpring.cancel();
+        }
+        if (mFirstLayout) {
+            mSlideOffset = slideOffset;
+            mCrossFadeHelper.setOffset(slideOffset);
+            return;
+        }
+        applySlideOffset(slideOffset);
+        onPanelSettled();
+    }
+
+    /**
+     * slides the content to the given stage
+     *
+     * @param stage 0 is closed and getStageCount() - 1 is opened
+     * @return true if the content slides
+     */
+    public boolean slideToStage(int stage) {
+        return smoothSlideTo(mCrossFadeHelper.getStageOffset(stage));
+    }
+
+    public boolean closePane() {
+        return smoothSlideTo(0);
+    }
+
+    /**
+     * slides the content to the given offset
+     *
+     * @param slideOffset
+     * @return true if the content slides, false if it does not move or was moved directly as it was not laid out yet
+     */
+    private boolean smoothSlideTo(float slideOffset) {
+        final View content = getSlideableView();
+        if (content == null) {
+            return false;
+        }
+
+        if (mFirstLayout) {
+            //not laid out yet, just apply the offset
+            if (mSpring != null) {
+                mSpring.cancel();
+            }
+            mSlideOffset = slideOffset;
+            mCrossFadeHelper.setOffset(slideOffset);
+            requestLayout();
+            //the first layout applies the offset without a slide or slide events
+            return false;
+        }
+
+        if (mSpring != null) {
+            if (!mSpring.isRunning() && mSlideOffset == slideOffset) {
+                return false;
+            }
+            mCrossFadeHelper.onSlideStarting();
+            mSpring.animateTo(mSlideOffset, slideOffset);
+            return true;
+        }
+
+        mCrossFadeHelper.onSlideStarting();
+        if (mDragHelper.smoothSlideViewTo(content, getContentLeft(slideOffset), content.getTop())) {
+            ViewCompat.postInvalidateOnAnimation(this);
+            return true;
+        }
+        //no slide will happen, so nobody would release the layers again
+        mCrossFadeHelper.onPanelSettled();
+        return false;
+    }
+
+    /**
+     * @param xvel the velocity towards the opened position
+     * @return the offset of the stage the content settles at after it was released
+     */
+    private float getReleaseOffset(float xvel) {
+        //the stages around the current offset
+        int lower = 0;
+        final int count = mCrossFadeHelper.getStageCount();
+        while (lower < count - 2 && mCrossFadeHelper.getStageOffset(lower + 1) <= mSlideOffset) {
+            lower++;
+        }
+        final float start = mCrossFadeHelper.getStageOffset(lower);
+        final float end = mCrossFadeHelper.getStageOffset(lower + 1);
+
+        if (xvel > 0 || (xvel == 0 && mSlideOffset - start > (end - start) / 2)) {
+            return end;
+        }
+        return start;
+    }
+
+    private View getPanel() {
+        return getChildCount() > 0 ? getChildAt(0) : null;
+    }
+
+    private View getSlideableView() {
+        return getChildCount() > 1 ? getChildAt(1) : null;
+    }
+
+    private boolean isLayoutRtlSupport() {
+        return ViewCompat.getLayoutDirection(this) == ViewCompat.LAYOUT_DIRECTION_RTL;
+    }
+
+    /**
+     * @return the left position of the content if the pane is closed, its start margin away from the start edge
+     */
+    private int getClosedLeft() {
+        final View content = getSlideableView();
+        if (content == null) {
+            return getPaddingLeft();
+        }
+        final MarginLayoutParams lp = (MarginLayoutParams) content.getLayoutParams();
+        if (isLayoutRtlSupport()) {
+            return getWidth() - getPaddingRight() - lp.rightMargin - content.getMeasuredWidth();
+        }
+        return getPaddingLeft() + lp.leftMargin;
+    }
+
+    /**
+     * @param slideOffset
+     * @return the left position of the content at the given offset, it slides to the left for RTL
+     */
+    private int getContentLeft(float slideOffset) {
+        final int distance = (int) (slideOffset * mSlideRange);
+        return isLayoutRtlSupport() ? getClosedLeft() - distance : getClosedLeft() + distance;
+    }
+
+    private void onPanelDragged(int newLeft) {
+        final int distance = isLayoutRtlSupport() ? getClosedLeft() - newLeft : newLeft - getClosedLeft();
+        mSlideOffset = mSlideRange == 0 ? 0 : Math.max(0, Math.min(1, (float) distance / mSlideRange));
+
+        mCrossFadeHelper.onPanelSlide(mSlideOffset);
+        if (mInputLatencyProbe != null) {
+            mInputLatencyProbe.onOffsetApplied();
+        }
+        mPanelSlideListeners.onPanelSlide(getSlideableView(), mSlideOffset);
+    }
+
+    /**
+     * moves the content to the given offset and dispatches the slide, used by the spring animation
+     *
+     * @param slideOffset
+     */
+    private void applySlideOffset(float slideOffset) {
+        final View content = getSlideableView();
+        if (content == null) {
+            return;
+        }
+        content.offsetLeftAndRight(getContentLeft(slideOffset) - content.getLeft());
+
+        mSlideOffset = slideOffset;
+        mCrossFadeHelper.onPanelSlide(mSlideOffset);
+        mPanelSlideListeners.onPanelSlide(content, mSlideOffset);
+        invalidate();
+    }
+
+    private void onPanelSettled() {
+        if (mSpring != null && mSpring.isRunning()) {
+            //the ViewDragHelper is idle, but the spring still animates the content
+            return;
+        }
+        mCrossFadeHelper.onPanelSettled();
+        if (mSlideOffset == 1) {
+            mPanelSlideListeners.onPanelOpened(getSlideableView());
+        } else if (mSlideOffset == 0) {
+            mPanelSlideListeners.onPanelClosed(getSlideableView());
+        } else {
+            mPanelSlideListeners.onStageSettled(getSlideableView(), getStage(), mSlideOffset);
+        }
+    }
+
+    @Override
+    protected ViewGroup.LayoutParams generateDefaultLayoutParams() {
+        return new MarginLayoutParams(LayoutParams.MATCH_PARENT, LayoutParams.MATCH_PARENT);
+    }
+
+    @Override
+    protected ViewGroup.LayoutParams generateLayoutParams(ViewGroup.LayoutParams p) {
+        return p instanceof MarginLayoutParams ? new MarginLayoutParams((MarginLayoutParams) p) : new MarginLayoutParams(p);
+    }
+
+    @Override
+    protected boolean checkLayoutParams(ViewGroup.LayoutParams p) {
+        return p instanceof MarginLayoutParams && super.checkLayoutParams(p);
+    }
+
+    @Override
+    public ViewGroup.LayoutParams generateLayoutParams(AttributeSet attrs) {
+        return new MarginLayoutParams(getContext(), attrs);
+    }
+
+    private class SpringTarget implements SpringSlideAnimator.Target {
+        @Override
+        public void onSpringUpdate(float offset) {
+            applySlideOffset(offset);
+        }
+
+        @Override
+        public void onSpringEnd(float offset) {
+            onPanelSettled();
+        }
+    }
+
+    private class DragHelperCallback extends ViewDragHelper.Callback {
+        @Override
+        public boolean tryCaptureView(View child, int pointerId) {
+            return mCanSlide && !mIsUnableToDrag && child == getSlideableView();
+        }
+
+        @Override
+        public void onViewCaptured(View capturedChild, int activePointerId) {
+            if (mSpring != null) {
+                //the finger catches the content wherever the spring left it
+                mSpring.cancel();
+            }
+            mCrossFadeHelper.onSlideStarting();
+        }
+
+        @Override
+        public void onViewDragStateChanged(int state) {
+            if (state == ViewDragHelper.STATE_IDLE) {
+                onPanelSettled();
+            }
+        }
+
+        @Override
+        public void onViewPositionChanged(View changedView, int left, int top, int dx, int dy) {
+            onPanelDragged(left);
+            invalidate();
+        }
+
+        @Override
+        public void onViewReleased(View releasedChild, float xvel, float yvel) {
+            //the content opens to the left for RTL
+            final float velocity = isLayoutRtlSupport() ? -xvel : xvel;
+            final float slideOffset = getReleaseOffset(velocity);
+            if (mSpring != null && mSlideRange > 0) {
+                //continue with the velocity of the drag
+                mSpring.animateTo(mSlideOffset, slideOffset, velocity / mSlideRange);
+                return;
+            }
+            mDragHelper.settleCapturedViewAt(getContentLeft(slideOffset), releasedChild.getTop());
+            invalidate();
+        }
+
+        @Override
+        public int getViewHorizontalDragRange(View child) {
+            return mSlideRange;
+        }
+
+        @Override
+        public int clampViewPositionHorizontal(View child, int left, int dx) {
+            final int closedLeft = getClosedLeft();
+            if (isLayoutRtlSupport()) {
+                return Math.min(Math.max(left, closedLeft - mSlideRange), closedLeft);
+            }
+            return Math.min(Math.max(left, closedLeft), closedLeft + mSlideRange);
+        }
+
+        @Override
+        public int clampViewPositionVertical(View child, int top, int dy) {
+            return child.getTop();
+        }
+    }
+}
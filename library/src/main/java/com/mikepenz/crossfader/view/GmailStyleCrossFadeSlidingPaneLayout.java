@@ -1,11 +1,10 @@
 package com.mikepenz.crossfader.view;
 
 import android.content.Context;
+import android.graphics.Rect;
 import android.util.AttributeSet;
 import android.view.MotionEvent;
-import android.widget.LinearLayout;
-
-import com.mikepenz.crossfader.util.UIUtils;
+import android.view.View;
 
 /**
  * Created on 05.11.15
@@ -14,8 +13,29 @@ import com.mikepenz.crossfader.util.UIUtils;
  * @author github @suren1525 (Suren Khachatryan)
  */
 public class GmailStyleCrossFadeSlidingPaneLayout extends CrossFadeSlidingPaneLayout {
+    /**
+     * a drag may start on the second (mini) view
+     */
+    public static final int DRAG_REGION_SECOND = 1;
+    /**
+     * a drag may start within the edge gutter (see setEdgeGutterWidth)
+     */
+    public static final int DRAG_REGION_EDGE = 1 << 1;
+    /**
+     * a drag may start within the custom regions (see setCustomDragRegions)
+     */
+    public static final int DRAG_REGION_CUSTOM = 1 << 2;
+
     private boolean isEventHandled = false;
 
+    private int mDragRegions = DRAG_REGION_SECOND;
+    private int mEdgeGutterWidth = 0;
+    private Rect[] mCustomDragRegions = new Rect[0];
+
+    // the second view and its bounds in the coordinates of this layout, refreshed on every layout
+    private View mCrossFadeSecond = null;
+    private final Rect mSecondBounds = new Rect();
+
     public GmailStyleCrossFadeSlidingPaneLayout(Context context) {
         super(context);
     }
@@ -28,9 +48,63 @@ public class GmailStyleCrossFadeSlidingPaneLayout extends CrossFadeSlidingPaneLa
         super(context, attrs, defStyle);
     }
 
+    @Override
+    public void createContainers(int firstWidth, int secondWidth) {
+        super.createContainers(firstWidth, secondWidth);
+        init();
+    }
+
+    @Override
+    protected void onFinishInflate() {
+        super.onFinishInflate();
+        init();
+    }
+
+    private void init() {
+        mCrossFadeSecond = findViewById(com.mikepenz.crossfader.R.id.second);
+    }
+
+    @Override
+    protected void onLayout(boolean changed, int l, int t, int r, int b) {
+        super.onLayout(changed, l, t, r, b);
+        updateSecondBounds();
+    }
+
+    /**
+     * define which regions are allowed to start a drag while the pane is closed
+     * combination of DRAG_REGION_SECOND, DRAG_REGION_EDGE and DRAG_REGION_CUSTOM
+     *
+     * @param dragRegions
+     */
+    public void setDragRegions(int dragRegions) {
+        this.mDragRegions = dragRegions;
+    }
+
+    /**
+     * define the width (in pixels) of the gutter at the left edge used for DRAG_REGION_EDGE
+     *
+     * @param edgeGutterWidth
+     */
+    public void setEdgeGutterWidth(int edgeGutterWidth) {
+        this.mEdgeGutterWidth = edgeGutterWidth;
+    }
+
+    /**
+     * define the regions (in the coordinates of this layout) used for DRAG_REGION_CUSTOM
+     *
+     * @param customDragRegions
+     */
+    public void setCustomDragRegions(Rect... customDragRegions) {
+        Rect[] regions = new Rect[customDragRegions.length];
+        for (int i = 0; i < customDragRegions.length; i++) {
+            regions[i] = new Rect(customDragRegions[i]);
+        }
+        this.mCustomDragRegions = regions;
+    }
+
     @Override
     public boolean onInterceptTouchEvent(MotionEvent ev) {
-        if (isOutOfSecond(ev)) {
+        if (isOutOfDragRegion(ev)) {
             return false;
         }
         return super.onInterceptTouchEvent(ev);
@@ -38,22 +112,78 @@ public class GmailStyleCrossFadeSlidingPaneLayout extends CrossFadeSlidingPaneLa
 
     @Override
     public boolean onTouchEvent(MotionEvent ev) {
-        if (isOutOfSecond(ev)) {
+        if (isOutOfDragRegion(ev)) {
             return false;
         }
         return super.onTouchEvent(ev);
     }
 
-    private boolean isOutOfSecond(MotionEvent ev) {
+    /**
+     * a closed pane can only be dragged from the drag regions, so only a pointer over them (touching or hovering) hints a drag
+     *
+     * @param ev
+     * @return
+     */
+    @Override
+    protected boolean isInSlideHintRegion(MotionEvent ev) {
+        if (isOpen()) {
+            return super.isInSlideHintRegion(ev);
+        }
+        return isInDragRegion((int) ev.getX(), (int) ev.getY());
+    }
+
+    private boolean isOutOfDragRegion(MotionEvent ev) {
         if (MotionEvent.ACTION_UP == ev.getAction() || MotionEvent.ACTION_CANCEL == ev.getAction()) {
             isEventHandled = false;
         }
-        LinearLayout mCrossFadeSecond = (LinearLayout) findViewById(com.mikepenz.crossfader.R.id.second);
-        if ((!isOpen() && ev.getAction() == MotionEvent.ACTION_DOWN && !UIUtils.isPointInsideView(ev.getRawX(), ev.getRawY(), mCrossFadeSecond)) || isEventHandled) {
+        if ((!isOpen() && ev.getAction() == MotionEvent.ACTION_DOWN && !isInDragRegion((int) ev.getX(), (int) ev.getY())) || isEventHandled) {
             isEventHandled = true;
             return true;
 
         }
         return false;
     }
-}
\ No newline at end of file
+
+    /**
+     * checks the given point (in the coordinates of this layout) against the configured drag regions
+     *
+     * @param x
+     * @param y
+     * @return
+     */
+    private boolean isInDragRegion(int x, int y) {
+        if ((mDragRegions & DRAG_REGION_SECOND) != 0 && mSecondBounds.contains(x, y)) {
+            return true;
+        }
+        if ((mDragRegions & DRAG_REGION_EDGE) != 0 && x >= 0 && x < mEdgeGutterWidth) {
+            return true;
+        }
+        if ((mDragRegions & DRAG_REGION_CUSTOM) != 0) {
+            for (Rect region : mCustomDragRegions) {
+                if (region.contains(x, y)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * helper method to cache the bounds of the second view in the coordinates of this layout
+     */
+    private void updateSecondBounds() {
+        if (mCrossFadeSecond == null) {
+            mSecondBounds.setEmpty();
+            return;
+        }
+        int left = mCrossFadeSecond.getLeft();
+        int top = mCrossFadeSecond.getTop();
+        View parent = (View) mCrossFadeSecond.getParent();
+        while (parent != null && parent != this) {
+            left += parent.getLeft();
+            top += parent.getTop();
+            parent = parent.getParent() instanceof View ? (View) parent.getParent() : null;
+        }
+        mSecondBounds.set(left, top, left + mCrossFadeSecond.getWidth(), top + mCrossFadeSecond.getHeight());
+    }
+}
@@ -1,10 +1,37 @@
 package com.mikepenz.crossfader.view;
 
+import androidx.slidingpanelayout.widget.SlidingPaneLayout;
+
 /**
  * Created by mikepenz on 04.11.15.
  */
 public interface ICrossFadeSlidingPaneLayout {
+    /**
+     * the pane is closed, only the partialView is shown
+     */
+    int STATE_CLOSED = 0;
+    /**
+     * the pane is between closed and opened, both views are shown
+     */
+    int STATE_SLIDING = 1;
+    /**
+     * the pane is opened, only the fullView is shown
+     */
+    int STATE_OPENED = 2;
+
     void setCanSlide(boolean canSlide);
 
     void setOffset(float slideOffset);
+
+    void setPanelSlideListener(SlidingPaneLayout.PanelSlideListener listener);
+
+    void addPanelSlideListener(SlidingPaneLayout.PanelSlideListener listener);
+
+    void removePanelSlideListener(SlidingPaneLayout.PanelSlideListener listener);
+
+    boolean isOpen();
+
+    boolean openPane();
+
+    boolean closePane();
 }
@@ -0,0 +1,10 @@
+package com.mikepenz.crossfader.view;
+
+/**
+ * Notified by the crossfader layouts before a slide starts: on a touch which may start a drag, a pointer hovering over
+ * the panel (if the prewarm on touch is enabled) or right before a programmatic slide.
+ * Everything the slide needs (e.g. lazily created views) can be created here instead of within its first frame.
+ */
+public interface OnPrepareSlideListener {
+    void onPrepareSlide();
+}
@@ -0,0 +1,128 @@
+package com.mikepenz.crossfader.view;
+
+/**
+ * Caches the widths the crossfader derives from the width of the crossfader layout and the first and second width
+ * (the width of the content if the pane is closed or opened, the distance the panel grows).
+ * The derived widths are only computed again if one of the widths changes.
+ * <p/>
+ * The width of the crossfader layout is the width it is measured with, the same as reported by onSizeChanged, but
+ * early enough that LayoutParams changed by the listener are applied within the same layout pass.
+ */
+public class PaneWidths {
+    public interface OnPaneWidthChangedListener {
+        /**
+         * called while the crossfader layout is measured if its width changed, before its children are measured
+         *
+         * @param paneWidths
+         */
+        void onPaneWidthChanged(PaneWidths paneWidths);
+    }
+
+    private OnPaneWidthChangedListener mListener;
+
+    // the width available to the children of the crossfader layout, -1 as long as it was not measured
+    private int mPaneWidth = -1;
+    private int mFirstWidth = 0;
+    private int mSecondWidth = 0;
+
+    // the derived widths
+    private int mClosedContentWidth = 0;
+    private int mOpenedContentWidth = 0;
+    private int mPanelDelta = 0;
+
+    public void setOnPaneWidthChangedListener(OnPaneWidthChangedListener listener) {
+        this.mListener = listener;
+    }
+
+    /**
+     * called by the crossfader layout while it is measured
+     *
+     * @param paneWidth the width available to the children
+     * @return true if the width changed
+     */
+    public boolean setPaneWidth(int paneWidth) {
+        if (paneWidth == mPaneWidth) {
+            return false;
+        }
+        mPaneWidth = paneWidth;
+        update();
+        if (mListener != null) {
+            mListener.onPaneWidthChanged(this);
+        }
+        return true;
+    }
+
+    /**
+     * @param firstWidth
+     * @param secondWidth
+     * @return true if one of the widths changed
+     */
+    public boolean setWidths(int firstWidth, int secondWidth) {
+        if (firstWidth == mFirstWidth && secondWidth == mSecondWidth) {
+            return false;
+        }
+        mFirstWidth = firstWidth;
+        mSecondWidth = secondWidth;
+        update();
+        return true;
+    }
+
+    private void update() {
+        mPanelDelta = mFirstWidth - mSecondWidth;
+        mClosedContentWidth = Math.max(0, mPaneWidth - mSecondWidth);
+        mOpenedContentWidth = Math.max(0, mPaneWidth - mFirstWidth);
+    }
+
+    /**
+     * @return true if the crossfader layout was measured already
+     */
+    public boolean hasPaneWidth() {
+        return mPaneWidth >= 0;
+    }
+
+    public int getPaneWidth() {
+        return mPaneWidth;
+    }
+
+    public int getFirstWidth() {
+        return mFirstWidth;
+    }
+
+    public int getSecondWidth() {
+        return mSecondWidth;
+    }
+
+    /**
+     * @return the distance between the closed and the opened panel
+     */
+    public int getPanelDelta() {
+        return mPanelDelta;
+    }
+
+    /**
+     * @return the width of the content if the pane is closed (the widest)
+     */
+    public int getClosedContentWidth() {
+        return mClosedContentWidth;
+    }
+
+    /**
+     * @return the width of the content if the pane is opened
+     */
+    public int getOpenedContentWidth() {
+        return mOpenedContentWidth;
+    }
+
+    /**
+     * @param slideOffset
+     * @return the width of the content at the given offset
+     */
+    public int getContentWidth(float slideOffset) {
+        if (slideOffset <= 0) {
+            return mClosedContentWidth;
+        } else if (slideOffset >= 1) {
+            return mOpenedContentWidth;
+        }
+        return Math.max(mOpenedContentWidth, (int) (mClosedContentWidth - mPanelDelta * slideOffset));
+    }
+}
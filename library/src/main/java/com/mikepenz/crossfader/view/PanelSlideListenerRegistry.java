@@ -0,0 +1,109 @@
+package com.mikepenz.crossfader.view;
+
+import androidx.slidingpanelayout.widget.SlidingPaneLayout;
+import android.view.View;
+
+/**
+ * Dispatches the slide events to any number of PanelSlideListeners in one flat loop.
+ * The listeners are kept in an array which is only copied if a listener is added or removed, so the dispatch does not
+ * allocate. Listeners can be added or removed while an event is dispatched, the change applies to the next event.
+ */
+public class PanelSlideListenerRegistry implements SlidingPaneLayout.PanelSlideListener {
+    private static final SlidingPaneLayout.PanelSlideListener[] EMPTY = new SlidingPaneLayout.PanelSlideListener[0];
+
+    private SlidingPaneLayout.PanelSlideListener[] mListeners = EMPTY;
+
+    /**
+     * adds the listener, if it was not added yet
+     *
+     * @param listener
+     */
+    public void add(SlidingPaneLayout.PanelSlideListener listener) {
+        if (listener == null || indexOf(listener) >= 0) {
+            return;
+        }
+        final int count = mListeners.length;
+        SlidingPaneLayout.PanelSlideListener[] listeners = new SlidingPaneLayout.PanelSlideListener[count + 1];
+        System.arraycopy(mListeners, 0, listeners, 0, count);
+        listeners[count] = listener;
+        mListeners = listeners;
+    }
+
+    /**
+     * removes the listener
+     *
+     * @param listener
+     */
+    public void remove(SlidingPaneLayout.PanelSlideListener listener) {
+        final int index = indexOf(listener);
+        if (index < 0) {
+            return;
+        }
+        final int count = mListeners.length;
+        if (count == 1) {
+            mListeners = EMPTY;
+            return;
+        }
+        SlidingPaneLayout.PanelSlideListener[] listeners = new SlidingPaneLayout.PanelSlideListener[count - 1];
+        System.arraycopy(mListeners, 0, listeners, 0, index);
+        System.arraycopy(mListeners, index + 1, listeners, index, count - index - 1);
+        mListeners = listeners;
+    }
+
+    /**
+     * @return the number of listeners
+     */
+    public int size() {
+        return mListeners.length;
+    }
+
+    private int indexOf(SlidingPaneLayout.PanelSlideListener listener) {
+        final SlidingPaneLayout.PanelSlideListener[] listeners = mListeners;
+        for (int i = 0; i < listeners.length; i++) {
+            if (listeners[i] == listener) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public void onPanelSlide(View panel, float slideOffset) {
+        final SlidingPaneLayout.PanelSlideListener[] listeners = mListeners;
+        for (int i = 0; i < listeners.length; i++) {
+            listeners[i].onPanelSlide(panel, slideOffset);
+        }
+    }
+
+    @Override
+    public void onPanelOpened(View panel) {
+        final SlidingPaneLayout.PanelSlideListener[] listeners = mListeners;
+        for (int i = 0; i < listeners.length; i++) {
+            listeners[i].onPanelOpened(panel);
+        }
+    }
+
+    @Override
+    public void onPanelClosed(View panel) {
+        final SlidingPaneLayout.PanelSlideListener[] listeners = mListeners;
+        for (int i = 0; i < listeners.length; i++) {
+            listeners[i].onPanelClosed(panel);
+        }
+    }
+
+    /**
+     * notifies the listeners which implement CrossfadeLayout.OnStageSettledListener
+     *
+     * @param panel
+     * @param stage
+     * @param slideOffset
+     */
+    public void onStageSettled(View panel, int stage, float slideOffset) {
+        final SlidingPaneLayout.PanelSlideListener[] listeners = mListeners;
+        for (int i = 0; i < listeners.length; i++) {
+            if (listeners[i] instanceof CrossfadeLayout.OnStageSettledListener) {
+                ((CrossfadeLayout.OnStageSettledListener) listeners[i]).onStageSettled(panel, stage, slideOffset);
+            }
+        }
+    }
+}
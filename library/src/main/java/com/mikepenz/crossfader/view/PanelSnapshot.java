@@ -0,0 +1,176 @@
+package com.mikepenz.crossfader.view;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.RecordingCanvas;
+import android.graphics.RenderNode;
+import android.os.Build;
+import androidx.annotation.RequiresApi;
+import android.view.View;
+
+/**
+ * A snapshot of a panel of the crossfader, which is drawn instead of the live view while the pane slides.
+ * Uses a RenderNode on API 29+ (if hardware accelerated), a Bitmap otherwise. The Bitmap is kept after the snapshot
+ * was released and reused by the next capture if the size of the view did not change.
+ * A RenderNode can only be drawn into a hardware accelerated canvas, a software draw (e.g. View#draw(Canvas) into a
+ * Bitmap for a screenshot or a software layer of a parent) draws the live view instead.
+ */
+class PanelSnapshot {
+    private RenderNodeSnapshot mRenderNodeSnapshot = null;
+
+    private Bitmap mBitmap = null;
+    private Canvas mBitmapCanvas = null;
+    private final Paint mPaint = new Paint(Paint.FILTER_BITMAP_FLAG);
+
+    // true if a snapshot was captured and not released yet
+    private boolean mCaptured = false;
+    private boolean mUseRenderNode = false;
+
+    /**
+     * records the view once
+     *
+     * @param view
+     * @return false if the view was not laid out yet and can not be captured
+     */
+    boolean capture(View view) {
+        final int width = view.getWidth();
+        final int height = view.getHeight();
+        if (width <= 0 || height <= 0) {
+            return false;
+        }
+
+        mUseRenderNode = Build.VERSION.SDK_INT >= Build.VERSION_CODES.Q && view.isHardwareAccelerated();
+        if (mUseRenderNode) {
+            if (mRenderNodeSnapshot == null) {
+                mRenderNodeSnapshot = new RenderNodeSnapshot();
+            }
+            mRenderNodeSnapshot.capture(view, width, height);
+        } else {
+            if (mBitmap == null || mBitmap.getWidth() != width || mBitmap.getHeight() != height) {
+                if (mBitmap != null) {
+                    mBitmap.recycle();
+                }
+                mBitmap = Bitmap.createBitmap(width, height, Bitmap.Config.ARGB_8888);
+                mBitmapCanvas = new Canvas(mBitmap);
+            } else {
+                mBitmap.eraseColor(0);
+            }
+            view.draw(mBitmapCanvas);
+        }
+        mCaptured = true;
+        return true;
+    }
+
+    /**
+     * draws the view once into the RenderNode and discards the drawing again, so the display lists of its children
+     * are recorded before the view is drawn the first time. only available on API 29+ (if hardware accelerated)
+     *
+     * @param view
+     * @return false if the view could not be recorded
+     */
+    boolean prerecord(View view) {
+        if (mCaptured || Build.VERSION.SDK_INT < Build.VERSION_CODES.Q || !view.isHardwareAccelerated()
+                || view.getWidth() <= 0 || view.getHeight() <= 0) {
+            return false;
+        }
+        if (mRenderNodeSnapshot == null) {
+            mRenderNodeSnapshot = new RenderNodeSnapshot();
+        }
+        mRenderNodeSnapshot.capture(view, view.getWidth(), view.getHeight());
+        mRenderNodeSnapshot.release();
+        return true;
+    }
+
+    boolean isCaptured() {
+        return mCaptured;
+    }
+
+    /**
+     * draws the snapshot with the given alpha at the given position
+     *
+     * @param canvas
+     * @param view   the captured view, drawn instead of the RenderNode into a canvas which is not hardware accelerated
+     * @param left
+     * @param top
+     * @param alpha
+     */
+    void draw(Canvas canvas, View view, float left, float top, float alpha) {
+        if (!mCaptured || alpha <= 0) {
+            return;
+        }
+
+        if (mUseRenderNode) {
+            if (canvas.isHardwareAccelerated()) {
+                mRenderNodeSnapshot.draw(canvas, left, top, alpha);
+            } else {
+                RenderNodeSnapshot.drawView(canvas, view, left, top, alpha);
+            }
+        } else {
+            mPaint.setAlpha((int) (alpha * 255));
+            canvas.drawBitmap(mBitmap, left, top, mPaint);
+        }
+    }
+
+    /**
+     * releases the snapshot, the Bitmap is kept for the next capture
+     */
+    void release() {
+        if (!mCaptured) {
+            return;
+        }
+        mCaptured = false;
+        if (mRenderNodeSnapshot != null) {
+            mRenderNodeSnapshot.release();
+        }
+    }
+
+    /**
+     * releases the snapshot and the Bitmap
+     */
+    void recycle() {
+        release();
+        if (mBitmap != null) {
+            mBitmap.recycle();
+            mBitmap = null;
+            mBitmapCanvas = null;
+        }
+    }
+
+    @RequiresApi(Build.VERSION_CODES.Q)
+    private static class RenderNodeSnapshot {
+        private final RenderNode mRenderNode = new RenderNode("CrossfaderPanelSnapshot");
+
+        void capture(View view, int width, int height) {
+            mRenderNode.setPosition(0, 0, width, height);
+            RecordingCanvas canvas = mRenderNode.beginRecording(width, height);
+            try {
+                view.draw(canvas);
+            } finally {
+                mRenderNode.endRecording();
+            }
+        }
+
+        void draw(Canvas canvas, float left, float top, float alpha) {
+            mRenderNode.setTranslationX(left);
+            mRenderNode.setTranslationY(top);
+            mRenderNode.setAlpha(alpha);
+            canvas.drawRenderNode(mRenderNode);
+        }
+
+        /**
+         * draws the live view with the given alpha, for a canvas which can not draw the RenderNode.
+         * the view is invisible while the snapshot replaces it, View#draw ignores its own visibility
+         */
+        static void drawView(Canvas canvas, View view, float left, float top, float alpha) {
+            final int count = canvas.saveLayerAlpha(left, top, left + view.getWidth(), top + view.getHeight(), (int) (alpha * 255));
+            canvas.translate(left, top);
+            view.draw(canvas);
+            canvas.restoreToCount(count);
+        }
+
+        void release() {
+            mRenderNode.discardDisplayList();
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package com.mikepenz.crossfader.view;
+
+import android.view.Choreographer;
+
+/**
+ * Animates the slide offset (0 - 1) of a crossfader layout with a damped spring.
+ * The animation is stepped from a single Choreographer frame callback without allocations, it can be retargeted while
+ * running (keeping its velocity) and started with the velocity of a released drag.
+ * Has to be used from the main thread.
+ */
+class SpringSlideAnimator implements Choreographer.FrameCallback {
+    /**
+     * receives the offsets of the animation
+     */
+    interface Target {
+        void onSpringUpdate(float offset);
+
+        void onSpringEnd(float offset);
+    }
+
+    /**
+     * default stiffness, same as the SpringForce.STIFFNESS_MEDIUM of the androidx dynamicanimation
+     */
+    static final float DEFAULT_STIFFNESS = 1500f;
+    /**
+     * default damping ratio, a critically damped spring which does not overshoot
+     */
+    static final float DEFAULT_DAMPING_RATIO = 1f;
+
+    // the maximum duration of a single integration step
+    private static final float MAX_STEP = 0.004f;
+    // the first frame and frames after long pauses are integrated with this duration
+    private static final float DEFAULT_FRAME = 1 / 60f;
+    private static final float MAX_FRAME = 0.064f;
+    // the spring is at rest once it is this close to the target and this slow
+    private static final float REST_OFFSET = 0.001f;
+    private static final float REST_VELOCITY = 0.01f;
+
+    private final Target mTarget;
+
+    private float mStiffness = DEFAULT_STIFFNESS;
+    private float mDampingRatio = DEFAULT_DAMPING_RATIO;
+
+    private boolean mRunning = false;
+    private float mValue = 0;
+    private float mVelocity = 0;
+    private float mTargetValue = 0;
+    private long mLastFrameTime = 0;
+
+    SpringSlideAnimator(Target target) {
+        this.mTarget = target;
+    }
+
+    void setStiffness(float stiffness) {
+        this.mStiffness = stiffness;
+    }
+
+    void setDampingRatio(float dampingRatio) {
+        this.mDampingRatio = dampingRatio;
+    }
+
+    boolean isRunning() {
+        return mRunning;
+    }
+
+    float getTargetValue() {
+        return mTargetValue;
+    }
+
+    /**
+     * animates to the given target, if the spring already runs it keeps its current value and velocity
+     *
+     * @param from   the current offset, used if the spring does not run yet
+     * @param target the offset to animate to
+     */
+    void animateTo(float from, float target) {
+        if (!mRunning) {
+            mValue = from;
+            mVelocity = 0;
+        }
+        mTargetValue = target;
+        start();
+    }
+
+    /**
+     * animates to the given target, starting with the given velocity (e.g. of a released drag)
+     *
+     * @param from     the current offset
+     * @param target   the offset to animate to
+     * @param velocity the velocity in offset per second
+     */
+    void animateTo(float from, float target, float velocity) {
+        mValue = from;
+        mVelocity = velocity;
+        mTargetValue = target;
+        start();
+    }
+
+    /**
+     * stops the animation at its current value, without notifying the target
+     */
+    void cancel() {
+        if (!mRunning) {
+            return;
+        }
+        mRunning = false;
+        Choreographer.getInstance().removeFrameCallback(this);
+    }
+
+    private void start() {
+        if (mRunning) {
+            return;
+        }
+        mRunning = true;
+        mLastFrameTime = 0;
+        Choreographer.getInstance().postFrameCallback(this);
+    }
+
+    @Override
+    public void doFrame(long frameTimeNanos) {
+        if (!mRunning) {
+            return;
+        }
+
+        float frame = mLastFrameTime == 0 ? DEFAULT_FRAME : Math.min(MAX_FRAME, (frameTimeNanos - mLastFrameTime) / 1000000000f);
+        mLastFrameTime = frameTimeNanos;
+
+        final float damping = 2 * mDampingRatio * (float) Math.sqrt(mStiffness);
+        while (frame > 0) {
+            final float step = Math.min(frame, MAX_STEP);
+            final float acceleration = -mStiffness * (mValue - mTargetValue) - damping * mVelocity;
+            mVelocity += acceleration * step;
+            mValue += mVelocity * step;
+            frame -= step;
+        }
+
+        //the content can not slide beyond the closed or opened position
+        if (mValue < 0 || mValue > 1) {
+            mValue = Math.max(0, Math.min(1, mValue));
+            mVelocity = 0;
+        }
+
+        if (Math.abs(mValue - mTargetValue) < REST_OFFSET && Math.abs(mVelocity) < REST_VELOCITY) {
+            mRunning = false;
+            mValue = mTargetValue;
+            mVelocity = 0;
+            mTarget.onSpringUpdate(mValue);
+            mTarget.onSpringEnd(mValue);
+            return;
+        }
+
+        mTarget.onSpringUpdate(mValue);
+        Choreographer.getInstance().postFrameCallback(this);
+    }
+}
@@ -0,0 +1,17 @@
+package com.mikepenz.crossfader;
+
+/**
+ * Checks the slide path of the default CrossFadeSlidingPaneLayout
+ */
+public class CrossFadeSlidingPaneLayoutSlidePathTest extends SlidePathTest {
+    @Override
+    protected Crossfader configure(Crossfader crossfader) {
+        return crossfader;
+    }
+
+    @Override
+    protected long getMaxAllocationsPerFrame() {
+        //the SlidingPaneLayout dispatches its listeners with a for-each loop, which allocates one iterator per frame
+        return ROBOLECTRIC_ALLOCATIONS_PER_FRAME + 32;
+    }
+}
@@ -0,0 +1,60 @@
+package com.mikepenz.crossfader;
+
+import android.content.pm.ApplicationInfo;
+import android.os.SystemClock;
+import android.view.MotionEvent;
+import android.view.View;
+import android.view.ViewGroup;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Checks the slide path of the CrossfadeLayout
+ */
+public class CrossfadeLayoutSlidePathTest extends SlidePathTest {
+    @Override
+    protected Crossfader configure(Crossfader crossfader) {
+        return crossfader.withCrossfadeLayout();
+    }
+
+    @Test
+    public void rtlMirrorsThePanelAndTheDrag() {
+        //the layout direction is only resolved if the application supports RTL
+        mActivity.getApplicationInfo().flags |= ApplicationInfo.FLAG_SUPPORTS_RTL;
+        mHost.setLayoutDirection(View.LAYOUT_DIRECTION_RTL);
+        ViewGroup pane = build(false);
+        View panel = pane.getChildAt(0);
+        View content = pane.getChildAt(1);
+
+        //the panel is at the right, the content starts next to the second view
+        assertEquals(WIDTH, panel.getRight());
+        assertEquals(WIDTH - SECOND_WIDTH, content.getRight());
+
+        //dragging the content to the left opens the pane, up to the width of the first view
+        float fromX = WIDTH - SECOND_WIDTH - 1;
+        float y = HEIGHT / 2f;
+        long downTime = SystemClock.uptimeMillis();
+        dispatch(pane, MotionEvent.obtain(downTime, downTime, MotionEvent.ACTION_DOWN, fromX, y, 0));
+        for (int i = 1; i <= 20; i++) {
+            dispatch(pane, MotionEvent.obtain(downTime, downTime + i * 16, MotionEvent.ACTION_MOVE, fromX - i * 10, y, 0));
+            layout(mHost);
+        }
+        assertTrue("the content did not slide to the left", content.getRight() < WIDTH - SECOND_WIDTH);
+        assertTrue(mCrossfader.getSlideOffset() > 0);
+
+        //the drag is clamped at the opened position
+        dispatch(pane, MotionEvent.obtain(downTime, downTime + 21 * 16, MotionEvent.ACTION_MOVE, 0, y, 0));
+        layout(mHost);
+        assertEquals(WIDTH - FIRST_WIDTH, content.getRight());
+        assertEquals(1, mCrossfader.getSlideOffset(), 0);
+
+        //dragging back to the right closes it again
+        dispatch(pane, MotionEvent.obtain(downTime, downTime + 22 * 16, MotionEvent.ACTION_MOVE, WIDTH, y, 0));
+        layout(mHost);
+        assertEquals(WIDTH - SECOND_WIDTH, content.getRight());
+        assertEquals(0, mCrossfader.getSlideOffset(), 0);
+    }
+}
@@ -0,0 +1,108 @@
+package com.mikepenz.crossfader;
+
+import android.app.Activity;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.FrameLayout;
+
+import com.mikepenz.crossfader.metrics.SlideMetrics;
+import com.mikepenz.crossfader.metrics.SlideMetricsListener;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Checks that the slide metrics are only collected while the pane slides
+ */
+@RunWith(RobolectricTestRunner.class)
+public class CrossfaderSlideMetricsTest {
+    private static final int WIDTH = 1000;
+    private static final int HEIGHT = 1000;
+    private static final int FIRST_WIDTH = 200;
+    private static final int SECOND_WIDTH = 72;
+
+    private Activity mActivity;
+    private FrameLayout mHost;
+    private CountingSlideMetricsListener mSlideMetricsListener;
+
+    @Before
+    public void setUp() {
+        mActivity = Robolectric.buildActivity(Activity.class).setup().get();
+        mHost = new FrameLayout(mActivity);
+        mActivity.setContentView(mHost, new ViewGroup.LayoutParams(WIDTH, HEIGHT));
+        mSlideMetricsListener = new CountingSlideMetricsListener();
+    }
+
+    @Test
+    public void crossFadeBeforeTheFirstLayoutDoesNotTrackASlide() {
+        checkCrossFadeBeforeTheFirstLayout(prepare().build());
+    }
+
+    @Test
+    public void crossFadeBeforeTheFirstLayoutDoesNotTrackASlideWithCrossfadeLayout() {
+        checkCrossFadeBeforeTheFirstLayout(prepare().withCrossfadeLayout().build());
+    }
+
+    @Test
+    public void slideToStageBeforeTheFirstLayoutDoesNotTrackASlide() {
+        Crossfader crossfader = prepare().withCrossfadeLayout().build();
+        crossfader.slideToStage(1);
+        assertFalse("tracks a slide before the first layout", crossfader.isTrackingSlideMetrics());
+
+        layout();
+        assertTrue(crossfader.isCrossFaded());
+        assertFalse("tracks a slide after the state was applied", crossfader.isTrackingSlideMetrics());
+        assertEquals(0, mSlideMetricsListener.mCount);
+    }
+
+    /**
+     * the state is applied by the first layout without a slide, so no frames may be tracked
+     *
+     * @param crossfader
+     */
+    private void checkCrossFadeBeforeTheFirstLayout(Crossfader crossfader) {
+        crossfader.crossFade();
+        assertFalse("tracks a slide before the first layout", crossfader.isTrackingSlideMetrics());
+
+        layout();
+        assertTrue(crossfader.isCrossFaded());
+        assertFalse("tracks a slide after the state was applied", crossfader.isTrackingSlideMetrics());
+        assertEquals(0, mSlideMetricsListener.mCount);
+    }
+
+    /**
+     * creates a new crossfader with plain views and a SlideMetricsListener
+     */
+    private Crossfader prepare() {
+        View content = new View(mActivity);
+        mHost.addView(content, ViewGroup.LayoutParams.MATCH_PARENT, ViewGroup.LayoutParams.MATCH_PARENT);
+
+        return new Crossfader()
+                .withContent(content)
+                .withFirst(new View(mActivity), FIRST_WIDTH)
+                .withSecond(new View(mActivity), SECOND_WIDTH)
+                .withSlideMetricsListener(mSlideMetricsListener);
+    }
+
+    private void layout() {
+        mHost.measure(View.MeasureSpec.makeMeasureSpec(WIDTH, View.MeasureSpec.EXACTLY),
+                View.MeasureSpec.makeMeasureSpec(HEIGHT, View.MeasureSpec.EXACTLY));
+        mHost.layout(0, 0, WIDTH, HEIGHT);
+    }
+
+    private static class CountingSlideMetricsListener implements SlideMetricsListener {
+        private int mCount = 0;
+
+        @Override
+        public void onSlideMetrics(SlideMetrics slideMetrics) {
+            mCount++;
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.mikepenz.crossfader;
+
+import android.app.Activity;
+import android.os.Bundle;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.FrameLayout;
+
+import com.mikepenz.crossfader.view.CrossFadeSlidingPaneLayout;
+import com.mikepenz.crossfader.view.CrossfadeLayout;
+import com.mikepenz.crossfader.view.ICrossFadeSlidingPaneLayout;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Checks that a saved crossfader is restored with its exact offset by the first layout pass, without an animation
+ * or an additional layout pass
+ */
+@RunWith(RobolectricTestRunner.class)
+public class CrossfaderStateTest {
+    private static final int WIDTH = 1000;
+    private static final int HEIGHT = 1000;
+    private static final int FIRST_WIDTH = 200;
+    private static final int SECOND_WIDTH = 72;
+
+    private Activity mActivity;
+    private FrameLayout mHost;
+
+    @Before
+    public void setUp() {
+        mActivity = Robolectric.buildActivity(Activity.class).setup().get();
+        mHost = new FrameLayout(mActivity);
+        mActivity.setContentView(mHost, new ViewGroup.LayoutParams(WIDTH, HEIGHT));
+    }
+
+    @Test
+    public void coldRestoreIntoOpenStateTakesOneLayoutPass() {
+        Crossfader saved = prepare().build();
+        ((ICrossFadeSlidingPaneLayout) saved.getCrossFadeLayout()).openPane();
+        Bundle savedInstanceState = saved.saveInstanceState(new Bundle());
+        mHost.removeAllViews();
+
+        Crossfader crossfader = prepare().withSavedInstance(savedInstanceState).build();
+        assertEquals("layout passes", 1, layoutUntilSettled());
+
+        CrossFadeSlidingPaneLayout layout = (CrossFadeSlidingPaneLayout) crossfader.getCrossFadeLayout();
+        assertTrue(layout.isOpen());
+        assertEquals(ICrossFadeSlidingPaneLayout.STATE_OPENED, layout.getState());
+        assertEquals(1, crossfader.getSlideOffset(), 0);
+    }
+
+    @Test
+    public void coldRestoreIntoOpenStateTakesOneLayoutPassWithCrossfadeLayout() {
+        Crossfader saved = prepare().withCrossfadeLayout().build();
+        ((ICrossFadeSlidingPaneLayout) saved.getCrossFadeLayout()).openPane();
+        Bundle savedInstanceState = saved.saveInstanceState(new Bundle());
+        mHost.removeAllViews();
+
+        Crossfader crossfader = prepare().withCrossfadeLayout().withSavedInstance(savedInstanceState).build();
+        assertEquals("layout passes", 1, layoutUntilSettled());
+
+        CrossfadeLayout layout = (CrossfadeLayout) crossfader.getCrossFadeLayout();
+        assertTrue(layout.isOpen());
+        assertEquals(ICrossFadeSlidingPaneLayout.STATE_OPENED, layout.getState());
+        assertEquals(1, crossfader.getSlideOffset(), 0);
+    }
+
+    @Test
+    public void restoreKeepsTheExactOffsetOfTheCrossfadeLayout() {
+        Crossfader saved = prepare().withCrossfadeLayout().build();
+        ((CrossfadeLayout) saved.getCrossFadeLayout()).setSlideOffset(0.4f);
+        layoutUntilSettled();
+        Bundle savedInstanceState = saved.saveInstanceState(new Bundle());
+        mHost.removeAllViews();
+
+        Crossfader crossfader = prepare().withCrossfadeLayout().withSavedInstance(savedInstanceState).build();
+        assertEquals("layout passes", 1, layoutUntilSettled());
+        assertEquals(0.4f, crossfader.getSlideOffset(), 0);
+    }
+
+    /**
+     * creates a new crossfader with plain views
+     */
+    private Crossfader prepare() {
+        View content = new View(mActivity);
+        mHost.addView(content, ViewGroup.LayoutParams.MATCH_PARENT, ViewGroup.LayoutParams.MATCH_PARENT);
+
+        return new Crossfader()
+                .withContent(content)
+                .withFirst(new View(mActivity), FIRST_WIDTH)
+                .withSecond(new View(mActivity), SECOND_WIDTH);
+    }
+
+    /**
+     * @return the amount of layout passes until no further layout was requested
+     */
+    private int layoutUntilSettled() {
+        int passes = 0;
+        do {
+            mHost.measure(View.MeasureSpec.makeMeasureSpec(WIDTH, View.MeasureSpec.EXACTLY),
+                    View.MeasureSpec.makeMeasureSpec(HEIGHT, View.MeasureSpec.EXACTLY));
+            mHost.layout(0, 0, WIDTH, HEIGHT);
+            passes++;
+        } while (mHost.isLayoutRequested() && passes < 10);
+        return passes;
+    }
+}
@@ -0,0 +1,30 @@
+package com.mikepenz.crossfader;
+
+import android.graphics.Rect;
+import android.view.ViewGroup;
+
+import com.mikepenz.crossfader.view.GmailStyleCrossFadeSlidingPaneLayout;
+
+/**
+ * Checks the slide path of the GmailStyleCrossFadeSlidingPaneLayout, the drag starts within a custom drag region
+ */
+public class GmailStyleSlidePathTest extends SlidePathTest {
+    @Override
+    protected Crossfader configure(Crossfader crossfader) {
+        return crossfader.withGmailStyleSwiping();
+    }
+
+    @Override
+    protected void onBuilt(ViewGroup pane) {
+        //the drag starts on the content, next to the second view
+        GmailStyleCrossFadeSlidingPaneLayout gmailStyleLayout = (GmailStyleCrossFadeSlidingPaneLayout) pane;
+        gmailStyleLayout.setDragRegions(GmailStyleCrossFadeSlidingPaneLayout.DRAG_REGION_CUSTOM);
+        gmailStyleLayout.setCustomDragRegions(new Rect(SECOND_WIDTH, 0, SECOND_WIDTH * 2, HEIGHT));
+    }
+
+    @Override
+    protected long getMaxAllocationsPerFrame() {
+        //the SlidingPaneLayout dispatches its listeners with a for-each loop, which allocates one iterator per frame
+        return ROBOLECTRIC_ALLOCATIONS_PER_FRAME + 32;
+    }
+}
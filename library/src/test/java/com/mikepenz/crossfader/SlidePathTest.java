@@ -0,0 +1,399 @@
+package com.mikepenz.crossfader;
+
+import android.app.Activity;
+import android.content.Context;
+import android.graphics.Rect;
+import android.os.SystemClock;
+import androidx.slidingpanelayout.widget.SlidingPaneLayout;
+import android.view.MotionEvent;
+import android.view.View;
+import android.view.ViewGroup;
+import android.view.ViewParent;
+import android.widget.FrameLayout;
+import android.widget.LinearLayout;
+
+import com.mikepenz.crossfader.view.ICrossFadeSlidingPaneLayout;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Drives full drags through a crossfader layout with MotionEvents and checks the steady state frames of the slide
+ * path: the allocations, the layout passes and the invalidations per frame have to stay within the bounds.
+ * The first frames of a drag (until the pane moved and the warmup frames passed) are not checked, they capture the
+ * drag and start the slide. A frame is simulated by the touch event and a layout pass (if one was requested).
+ * <p/>
+ * Extend it for every crossfader layout, a custom ICrossFadeSlidingPaneLayout is checked by selecting its base layout
+ * in configure(Crossfader). The allocations are measured in bytes with the allocation counter of the JVM, without the
+ * bytes the reads of the counter allocate themselves. They still include what Robolectric allocates to dispatch the
+ * shadowed framework calls of a frame (e.g. invalidate), which does not happen on a device.
+ */
+@RunWith(RobolectricTestRunner.class)
+public abstract class SlidePathTest {
+    protected static final int WIDTH = 1000;
+    protected static final int HEIGHT = 1000;
+    protected static final int FIRST_WIDTH = 200;
+    protected static final int SECOND_WIDTH = 72;
+
+    private static final int STEPS = 100;
+    private static final int WARMUP_FRAMES = 2;
+
+    /**
+     * the bytes Robolectric may allocate per frame to dispatch the shadowed framework calls of the slide path
+     */
+    protected static final long ROBOLECTRIC_ALLOCATIONS_PER_FRAME = 256;
+
+    // the bytes one read of the allocation counter allocates itself, measured once
+    private static long sProbeAllocations = -1;
+
+    protected Activity mActivity;
+    protected CountingLayout mHost;
+    protected Crossfader mCrossfader;
+
+    /**
+     * selects the crossfader layout to check, e.g. with withCrossfadeLayout() or withBaseLayout()
+     *
+     * @param crossfader
+     * @return
+     */
+    protected abstract Crossfader configure(Crossfader crossfader);
+
+    /**
+     * called once the crossfader layout was built and laid out, before the drag starts
+     *
+     * @param pane
+     */
+    protected void onBuilt(ViewGroup pane) {
+    }
+
+    /**
+     * the crossfader itself must not allocate in a steady state frame, only Robolectric may
+     *
+     * @return the maximum amount of bytes a steady state frame may allocate
+     */
+    protected long getMaxAllocationsPerFrame() {
+        return ROBOLECTRIC_ALLOCATIONS_PER_FRAME;
+    }
+
+    /**
+     * @return the maximum amount of invalidations which may reach the host per steady state frame
+     */
+    protected int getMaxInvalidationsPerFrame() {
+        return 10;
+    }
+
+    @Before
+    public void setUp() {
+        mActivity = Robolectric.buildActivity(Activity.class).setup().get();
+        mHost = new CountingLayout(mActivity);
+        mActivity.setContentView(mHost, new ViewGroup.LayoutParams(WIDTH, HEIGHT));
+    }
+
+    @Test
+    public void slidePathDoesNotAllocateOrLayout() {
+        Result result = drag(build(false));
+        assertSlid(result);
+        assertTrue("allocated " + result.mMaxAllocations + " bytes in a frame", result.mMaxAllocations <= getMaxAllocationsPerFrame());
+        assertEquals("layouts per frame", 0, result.mMaxLayouts);
+        assertTrue("invalidated " + result.mMaxInvalidations + " times in a frame", result.mMaxInvalidations <= getMaxInvalidationsPerFrame());
+    }
+
+    @Test
+    public void slidePathWithResizedContentLaysOutOncePerFrame() {
+        Result result = drag(build(true));
+        assertSlid(result);
+        assertTrue("allocated " + result.mMaxAllocations + " bytes in a frame", result.mMaxAllocations <= getMaxAllocationsPerFrame());
+        assertTrue("laid out " + result.mMaxLayouts + " times in a frame", result.mMaxLayouts <= 1);
+        assertTrue("invalidated " + result.mMaxInvalidations + " times in a frame", result.mMaxInvalidations <= getMaxInvalidationsPerFrame());
+    }
+
+    @Test
+    public void tapsAndScrollsInTheContentDoNotMeasureTheHiddenPanel() {
+        ViewGroup pane = build(false);
+        MeasureCountingLayout first = (MeasureCountingLayout) mCrossfader.getFirst();
+        first.mMeasureCount = 0;
+
+        float x = WIDTH / 2f;
+        float y = HEIGHT / 2f;
+        long downTime = SystemClock.uptimeMillis();
+
+        //a tap
+        dispatch(pane, MotionEvent.obtain(downTime, downTime, MotionEvent.ACTION_DOWN, x, y, 0));
+        layout(mHost);
+        dispatch(pane, MotionEvent.obtain(downTime, downTime + 16, MotionEvent.ACTION_UP, x, y, 0));
+        layout(mHost);
+
+        //a vertical scroll
+        downTime += 100;
+        dispatch(pane, MotionEvent.obtain(downTime, downTime, MotionEvent.ACTION_DOWN, x, y, 0));
+        for (int i = 1; i <= 10; i++) {
+            dispatch(pane, MotionEvent.obtain(downTime, downTime + i * 16, MotionEvent.ACTION_MOVE, x, y - i * 20, 0));
+            layout(mHost);
+        }
+        dispatch(pane, MotionEvent.obtain(downTime, downTime + 11 * 16, MotionEvent.ACTION_UP, x, y - 200, 0));
+        layout(mHost);
+
+        assertEquals("measures of the hidden panel", 0, first.mMeasureCount);
+        assertEquals(View.GONE, ((View) first.getParent()).getVisibility());
+    }
+
+    @Test
+    public void preparedSlideIsReleasedIfAChildDisallowsTheIntercept() {
+        ViewGroup pane = build(false);
+        View first = (View) mCrossfader.getFirst().getParent();
+        View second = mCrossfader.getSecond();
+
+        //a touch down on the visible panel prepares the slide
+        float x = SECOND_WIDTH / 2f;
+        float y = HEIGHT / 2f;
+        long downTime = SystemClock.uptimeMillis();
+        dispatch(pane, MotionEvent.obtain(downTime, downTime, MotionEvent.ACTION_DOWN, x, y, 0));
+
+        //the child takes the gesture, the up does not reach onInterceptTouchEvent anymore
+        second.getParent().requestDisallowInterceptTouchEvent(true);
+        dispatch(pane, MotionEvent.obtain(downTime, downTime + 16, MotionEvent.ACTION_UP, x, y, 0));
+        layout(mHost);
+
+        assertEquals(View.GONE, first.getVisibility());
+    }
+
+    /**
+     * checks that the drag moved the pane and that the PanelSlideListeners were notified for every frame which moved it
+     *
+     * @param result
+     */
+    protected static void assertSlid(Result result) {
+        assertTrue("the drag did not move the pane", result.mSlideFrameCount > 0);
+        assertTrue("the PanelSlideListeners were notified for " + result.mDispatchedSlideCount + " of " + result.mSlideFrameCount + " frames which moved the pane",
+                result.mDispatchedSlideCount >= result.mSlideFrameCount);
+        assertTrue("no frame was checked, the pane moved in " + result.mSlideFrameCount + " frames", result.mFrameCount > 0);
+    }
+
+    /**
+     * builds a crossfader with plain views (so only the slide path of the crossfader is checked) and lays it out
+     *
+     * @param resizeContentPanel
+     * @return the crossfader layout
+     */
+    protected ViewGroup build(boolean resizeContentPanel) {
+        View content = new View(mActivity);
+        mHost.addView(content, ViewGroup.LayoutParams.MATCH_PARENT, ViewGroup.LayoutParams.MATCH_PARENT);
+
+        mCrossfader = configure(new Crossfader()
+                .withContent(content)
+                .withFirst(createPanel(mActivity), FIRST_WIDTH)
+                .withSecond(createPanel(mActivity), SECOND_WIDTH)
+                .withResizeContentPanel(resizeContentPanel));
+        mCrossfader.build();
+        layout(mHost);
+
+        ViewGroup pane = mCrossfader.getCrossFadeLayout();
+        onBuilt(pane);
+        return pane;
+    }
+
+    /**
+     * drags the closed pane from the content next to the second view to the opened position.
+     * the slide frames are counted from the position of the content, independent of the PanelSlideListeners which are
+     * part of the checked slide path (the offset of the CrossFadeSlidingPaneLayout is updated by one of them)
+     *
+     * @param pane
+     * @return the worst steady state frame
+     */
+    protected Result drag(ViewGroup pane) {
+        ICrossFadeSlidingPaneLayout crossFadeLayout = (ICrossFadeSlidingPaneLayout) pane;
+        SlideCounter slideCounter = new SlideCounter();
+        crossFadeLayout.addPanelSlideListener(slideCounter);
+
+        Result result = new Result();
+        float fromX = SECOND_WIDTH + 1;
+        float toX = FIRST_WIDTH + 1;
+        float y = pane.getHeight() / 2f;
+        float step = (toX - fromX) / STEPS;
+        long downTime = SystemClock.uptimeMillis();
+
+        dispatch(pane, MotionEvent.obtain(downTime, downTime, MotionEvent.ACTION_DOWN, fromX, y, 0));
+        layout(mHost);
+
+        View slideableView = pane.getChildAt(1);
+        int slideableLeft = slideableView.getLeft();
+        for (int i = 1; i <= STEPS; i++) {
+            //the event is obtained before the frame, it is not part of the slide path
+            MotionEvent move = MotionEvent.obtain(downTime, downTime + i * 16, MotionEvent.ACTION_MOVE, fromX + i * step, y, 0);
+            mHost.reset();
+            long allocationsBefore = getAllocatedBytes();
+
+            pane.dispatchTouchEvent(move);
+            int layouts = 0;
+            if (mHost.isLayoutRequested()) {
+                layout(mHost);
+                layouts++;
+            }
+
+            long allocations = getAllocatedBytes() - allocationsBefore - getProbeAllocations();
+            move.recycle();
+
+            int previousSlideableLeft = slideableLeft;
+            slideableLeft = slideableView.getLeft();
+            if (slideableLeft == previousSlideableLeft) {
+                //the drag was not captured yet or the pane did not move in this frame
+                continue;
+            }
+            result.mSlideFrameCount++;
+            if (result.mSlideFrameCount <= WARMUP_FRAMES) {
+                //the slide just started
+                continue;
+            }
+            result.add(allocations, layouts, mHost.mInvalidationCount);
+        }
+        result.mDispatchedSlideCount = slideCounter.mSlideCount;
+
+        dispatch(pane, MotionEvent.obtain(downTime, downTime + (STEPS + 1) * 16, MotionEvent.ACTION_UP, toX, y, 0));
+        layout(mHost);
+        crossFadeLayout.removePanelSlideListener(slideCounter);
+        return result;
+    }
+
+    protected static void dispatch(ViewGroup pane, MotionEvent event) {
+        pane.dispatchTouchEvent(event);
+        event.recycle();
+    }
+
+    protected static void layout(View host) {
+        host.measure(View.MeasureSpec.makeMeasureSpec(WIDTH, View.MeasureSpec.EXACTLY),
+                View.MeasureSpec.makeMeasureSpec(HEIGHT, View.MeasureSpec.EXACTLY));
+        host.layout(0, 0, WIDTH, HEIGHT);
+    }
+
+    /**
+     * @param ctx
+     * @return a panel with a few children, which counts how often it is measured
+     */
+    protected static MeasureCountingLayout createPanel(Context ctx) {
+        MeasureCountingLayout panel = new MeasureCountingLayout(ctx);
+        panel.setOrientation(LinearLayout.VERTICAL);
+        for (int i = 0; i < 10; i++) {
+            //clickable, so the children become the touch target of a gesture which starts on them
+            View item = new View(ctx);
+            item.setClickable(true);
+            panel.addView(item, ViewGroup.LayoutParams.MATCH_PARENT, 48);
+        }
+        return panel;
+    }
+
+    /**
+     * the probe allocates on some JVMs (e.g. the arrays of getThreadAllocatedBytes), so the bytes between two back to
+     * back reads are subtracted from every measured frame. the smallest of several tries is used, so a one-off
+     * allocation (e.g. a class loaded by the first read) is not counted
+     *
+     * @return the bytes one read of the allocation counter allocates
+     */
+    private static long getProbeAllocations() {
+        if (sProbeAllocations < 0) {
+            long probeAllocations = Long.MAX_VALUE;
+            for (int i = 0; i < 100; i++) {
+                long first = getAllocatedBytes();
+                long second = getAllocatedBytes();
+                probeAllocations = Math.min(probeAllocations, second - first);
+            }
+            sProbeAllocations = Math.max(0, probeAllocations);
+        }
+        return sProbeAllocations;
+    }
+
+    private static long getAllocatedBytes() {
+        ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+        if (threadMXBean instanceof com.sun.management.ThreadMXBean) {
+            return ((com.sun.management.ThreadMXBean) threadMXBean).getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+        //the allocations can not be measured on this JVM
+        return 0;
+    }
+
+    /**
+     * counts the onPanelSlide events, to check that the listeners are notified for every frame which moved the pane
+     */
+    private static class SlideCounter extends SlidingPaneLayout.SimplePanelSlideListener {
+        private int mSlideCount = 0;
+
+        @Override
+        public void onPanelSlide(View panel, float slideOffset) {
+            mSlideCount++;
+        }
+    }
+
+    /**
+     * the host of the crossfader layout, counts the invalidations which reach it
+     */
+    protected static class CountingLayout extends FrameLayout {
+        private int mInvalidationCount = 0;
+
+        public CountingLayout(Context context) {
+            super(context);
+        }
+
+        void reset() {
+            mInvalidationCount = 0;
+        }
+
+        @Override
+        public void onDescendantInvalidated(View child, View target) {
+            mInvalidationCount++;
+            super.onDescendantInvalidated(child, target);
+        }
+
+        @SuppressWarnings("deprecation")
+        @Override
+        public ViewParent invalidateChildInParent(int[] location, Rect dirty) {
+            mInvalidationCount++;
+            return super.invalidateChildInParent(location, dirty);
+        }
+    }
+
+    /**
+     * a LinearLayout which counts how often it is measured
+     */
+    protected static class MeasureCountingLayout extends LinearLayout {
+        protected int mMeasureCount = 0;
+
+        public MeasureCountingLayout(Context context) {
+            super(context);
+        }
+
+        @Override
+        protected void onMeasure(int widthMeasureSpec, int heightMeasureSpec) {
+            mMeasureCount++;
+            super.onMeasure(widthMeasureSpec, heightMeasureSpec);
+        }
+    }
+
+    /**
+     * the worst steady state frame of a drag
+     */
+    protected static class Result {
+        // the frames which moved the pane and the onPanelSlide events the listeners received for them
+        private int mSlideFrameCount = 0;
+        private int mDispatchedSlideCount = 0;
+        // the checked steady state frames
+        private int mFrameCount = 0;
+        private long mMaxAllocations = 0;
+        private int mMaxLayouts = 0;
+        private int mMaxInvalidations = 0;
+
+        private void add(long allocations, int layouts, int invalidations) {
+            mFrameCount++;
+            mMaxAllocations = Math.max(mMaxAllocations, allocations);
+            mMaxLayouts = Math.max(mMaxLayouts, layouts);
+            mMaxInvalidations = Math.max(mMaxInvalidations, invalidations);
+        }
+    }
+}